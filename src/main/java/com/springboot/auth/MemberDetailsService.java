@@ -77,7 +77,8 @@ public class MemberDetailsService implements UserDetailsService {
     @Override //메서드를 재정의 합니다.
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
 
-        Optional<Member> optionalMember = memberRepository.findByEmail(username); //2.1
+        Optional<Member> optionalMember = memberRepository.findByEmail(username) //2.1
+                .filter(member -> member.getMemberStatus() != Member.MemberStatus.MEMBER_QUIT); //탈퇴한 회원은 로그인할 수 없습니다.
         Member findMember = optionalMember.orElseThrow( () ->
                 //memberRepository에서 못찾을 경우 예외 처리로 메시지를 던지기 위함 입니다.
                 new BusinessLogicException(ExceptionCode.MEMBER_NOT_FOUND));
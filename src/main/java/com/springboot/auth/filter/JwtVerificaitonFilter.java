@@ -2,8 +2,11 @@ package com.springboot.auth.filter;
 
 import com.springboot.auth.AuthorityUtils;
 import com.springboot.auth.jwt.JwtTokenizer;
+import com.springboot.auth.jwt.TokenRevocations;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.security.SignatureException;
+import org.springframework.security.authentication.CredentialsExpiredException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -21,10 +24,13 @@ import java.util.Map;
 public class JwtVerificaitonFilter extends OncePerRequestFilter {
     private final JwtTokenizer jwtTokenizer;
     private final AuthorityUtils authorityUtils;
+    private final TokenRevocations tokenRevocations;
 
-    public JwtVerificaitonFilter(JwtTokenizer jwtTokenizer, AuthorityUtils authorityUtils) {
+    public JwtVerificaitonFilter(JwtTokenizer jwtTokenizer, AuthorityUtils authorityUtils,
+                                 TokenRevocations tokenRevocations) {
         this.jwtTokenizer = jwtTokenizer;
         this.authorityUtils = authorityUtils;
+        this.tokenRevocations = tokenRevocations;
     }
 
     @Override
@@ -74,7 +80,12 @@ public class JwtVerificaitonFilter extends OncePerRequestFilter {
     private Map<String, Object> verifyJws(HttpServletRequest request) {
         String jws = request.getHeader("Authorization").replace("Bearer ", "");
         String base64EncodedSecretKey = jwtTokenizer.encodeBase64SecretKey(jwtTokenizer.getSecretKey());
-        Map<String, Object> claims = jwtTokenizer.getClaims(jws, base64EncodedSecretKey).getBody();
+        Claims claims = jwtTokenizer.getClaims(jws, base64EncodedSecretKey).getBody();
+
+        // 휴면 전환 등으로 무효화된 토큰은 서명이 올바르더라도 인증하지 않는다.
+        if (tokenRevocations.isRevoked((String) claims.get("username"), claims.getIssuedAt())) {
+            throw new CredentialsExpiredException("Revoked token");
+        }
 
         return claims;
 
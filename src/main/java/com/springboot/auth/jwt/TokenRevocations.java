@@ -0,0 +1,52 @@
+package com.springboot.auth.jwt;
+
+import com.springboot.metrics.MetricsSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/*
+ 회원별로 "이 시각 이전에 발급된 토큰은 더 이상 사용할 수 없다"는 기준 시각을 보관합니다.
+ JWT 는 서버에 상태가 없어서 만료되기 전에는 무효화할 수 없으므로, 휴면 전환처럼 토큰을 무효화해야 할 때
+ 기준 시각을 기록하고 JwtVerificaitonFilter 가 토큰의 발급 시각(iat)과 비교합니다.
+ 기준 시각 이후에 다시 로그인해서 받은 토큰은 사용할 수 있습니다.
+
+ iat 는 초 단위이므로 기준 시각과 같은 초에 발급된 토큰도 무효로 처리합니다.
+ 리프레시 토큰 만료 시간이 지난 기록은 그 전에 발급된 토큰이 모두 만료되었으므로 지웁니다.
+ */
+@Component
+public class TokenRevocations implements MetricsSource {
+    // username(email) -> 기준 시각(epoch millis)
+    private final ConcurrentMap<String, Long> revokedBefore = new ConcurrentHashMap<>();
+    private final long retentionMillis;
+
+    public TokenRevocations(@Value("${jwt.refresh-token-expiration-minutes}") int refreshTokenExpirationMinutes) {
+        this.retentionMillis = TimeUnit.MINUTES.toMillis(refreshTokenExpirationMinutes);
+    }
+
+    // 지금까지 발급된 회원의 토큰을 모두 무효화합니다.
+    public void revoke(String username) {
+        revokedBefore.put(username, System.currentTimeMillis());
+    }
+
+    public boolean isRevoked(String username, Date issuedAt) {
+        Long revokedAt = revokedBefore.get(username);
+        return revokedAt != null && (issuedAt == null || issuedAt.getTime() <= revokedAt);
+    }
+
+    // 보관 기간이 지난 기록을 지웁니다.
+    public void removeExpired() {
+        long threshold = System.currentTimeMillis() - retentionMillis;
+        revokedBefore.values().removeIf(revokedAt -> revokedAt < threshold);
+    }
+
+    @Override
+    public Map<String, Number> getMetrics() {
+        return Map.of("auth.token_revocations.size", revokedBefore.size());
+    }
+}
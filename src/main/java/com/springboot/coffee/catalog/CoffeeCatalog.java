@@ -0,0 +1,96 @@
+package com.springboot.coffee.catalog;
+
+import com.springboot.coffee.entity.Coffee;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/*
+ 커피 메뉴 전체를 메모리에 보관하는 카탈로그입니다.
+ 메뉴는 작고 주문마다 조회되기 때문에, 조회할 때마다 DB에 접근하지 않고 불변(immutable) 스냅샷을 참조합니다.
+
+ - 읽기: volatile 로 선언된 현재 스냅샷을 락 없이 그대로 읽습니다.
+ - 쓰기: 기존 스냅샷을 복사한 새 스냅샷을 만든 뒤 참조를 통째로 교체합니다. (copy-on-write)
+ 스냅샷이 교체될 때마다 세대(generation) 번호가 1씩 증가하므로, 세대 번호만 비교해도 메뉴가 바뀌었는지 알 수 있습니다.
+ 전체 메뉴를 다시 읽을 때는 DB 에 저장된 메뉴의 마지막 수정 시각으로 세대 번호를 정하므로,
+ 같은 DB 에서 메뉴를 읽은 서버들은 같은 세대 번호(ETag)를 사용합니다.
+ 스냅샷에 담긴 Coffee 는 여러 스레드가 공유하므로 꺼내 쓰는 쪽에서 값을 변경하면 안 됩니다.
+ */
+@Component
+public class CoffeeCatalog {
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of(), 0);
+
+    public Optional<Coffee> findById(long coffeeId) {
+        return Optional.ofNullable(snapshot.coffeesById.get(coffeeId));
+    }
+
+    public Optional<Coffee> findByCoffeeCode(String coffeeCode) {
+        return Optional.ofNullable(snapshot.coffeesByCode.get(coffeeCode));
+    }
+
+    public Collection<Coffee> findAll() {
+        return snapshot.coffeesById.values();
+    }
+
+    public long getGeneration() {
+        return snapshot.generation;
+    }
+
+    /*
+     DB 에서 읽어 온 전체 메뉴로 스냅샷을 새로 만듭니다.
+     generation 은 메뉴를 읽은 시점의 DB 상태에서 구한 값이며, 세대 번호가 줄어들지 않도록 현재 세대 번호보다 작으면 1만 증가시킵니다.
+     */
+    public synchronized void reload(Collection<Coffee> coffees, long generation) {
+        Map<Long, Coffee> coffeesById = new HashMap<>();
+        Map<String, Coffee> coffeesByCode = new HashMap<>();
+        for (Coffee coffee : coffees) {
+            coffeesById.put(coffee.getCoffeeId(), coffee);
+            coffeesByCode.put(coffee.getCoffeeCode(), coffee);
+        }
+        this.snapshot = new Snapshot(coffeesById, coffeesByCode, Math.max(snapshot.generation + 1, generation));
+    }
+
+    // 등록/수정된 커피를 반영한 새 스냅샷으로 교체합니다.
+    public synchronized void put(Coffee coffee) {
+        Map<Long, Coffee> coffeesById = new HashMap<>(snapshot.coffeesById);
+        Map<String, Coffee> coffeesByCode = new HashMap<>(snapshot.coffeesByCode);
+
+        Coffee previous = coffeesById.put(coffee.getCoffeeId(), coffee);
+        if (previous != null) {
+            coffeesByCode.remove(previous.getCoffeeCode());
+        }
+        coffeesByCode.put(coffee.getCoffeeCode(), coffee);
+
+        this.snapshot = new Snapshot(coffeesById, coffeesByCode, snapshot.generation + 1);
+    }
+
+    // 삭제된 커피를 제외한 새 스냅샷으로 교체합니다.
+    public synchronized void remove(long coffeeId) {
+        if (!snapshot.coffeesById.containsKey(coffeeId)) {
+            return;
+        }
+        Map<Long, Coffee> coffeesById = new HashMap<>(snapshot.coffeesById);
+        Map<String, Coffee> coffeesByCode = new HashMap<>(snapshot.coffeesByCode);
+
+        Coffee removed = coffeesById.remove(coffeeId);
+        coffeesByCode.remove(removed.getCoffeeCode());
+
+        this.snapshot = new Snapshot(coffeesById, coffeesByCode, snapshot.generation + 1);
+    }
+
+    private static final class Snapshot {
+        private final Map<Long, Coffee> coffeesById;
+        private final Map<String, Coffee> coffeesByCode;
+        private final long generation;
+
+        private Snapshot(Map<Long, Coffee> coffeesById, Map<String, Coffee> coffeesByCode, long generation) {
+            this.coffeesById = Collections.unmodifiableMap(coffeesById);
+            this.coffeesByCode = Collections.unmodifiableMap(coffeesByCode);
+            this.generation = generation;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.springboot.coffee.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/*
+ 커피 목록 응답을 (page, size) 별로 미리 직렬화해 두는 캐시입니다.
+ JSON(UTF-8) 바이트와 gzip 으로 압축한 바이트를 함께 보관하므로, 캐시에 있는 페이지는
+ 조회, 매핑, 직렬화 없이 바이트를 그대로 응답 스트림에 씁니다.
+
+ 캐시는 카탈로그 세대(generation) 단위로 관리합니다. 메뉴가 바뀌어 세대가 달라지면
+ 이전 세대의 페이지는 모두 버리고 새로 채웁니다.
+ */
+@Component
+public class CoffeePageCache {
+    // size 값을 마음대로 바꿔서 요청하면 캐시가 끝없이 커질 수 있으므로 보관할 페이지 수를 제한한다.
+    private static final int MAX_CACHED_PAGES = 256;
+
+    private final ObjectMapper objectMapper;
+    private volatile CachedPages cachedPages = new CachedPages(Long.MIN_VALUE);
+
+    public CoffeePageCache(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public RenderedPage get(long generation, int page, int size, Supplier<Object> responseBody) {
+        CachedPages current = cachedPages;
+        if (current.generation != generation) {
+            current = invalidate(generation);
+        }
+
+        String key = page + ":" + size;
+        RenderedPage renderedPage = current.pages.get(key);
+        if (renderedPage != null) {
+            return renderedPage;
+        }
+
+        renderedPage = render(responseBody.get());
+        if (current.pages.size() < MAX_CACHED_PAGES) {
+            RenderedPage cached = current.pages.putIfAbsent(key, renderedPage);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return renderedPage;
+    }
+
+    private synchronized CachedPages invalidate(long generation) {
+        // 더 새로운 세대로 이미 교체되었다면 그대로 사용한다.
+        if (cachedPages.generation < generation) {
+            cachedPages = new CachedPages(generation);
+        }
+        return cachedPages.generation == generation ? cachedPages : new CachedPages(generation);
+    }
+
+    private RenderedPage render(Object responseBody) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(responseBody);
+
+            ByteArrayOutputStream gzipJson = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(gzipJson)) {
+                gzipOutputStream.write(json);
+            }
+            return new RenderedPage(json, gzipJson.toByteArray());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("커피 목록 응답을 직렬화하지 못했습니다.", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Getter
+    public static class RenderedPage {
+        private final byte[] json;
+        private final byte[] gzipJson;
+
+        private RenderedPage(byte[] json, byte[] gzipJson) {
+            this.json = json;
+            this.gzipJson = gzipJson;
+        }
+    }
+
+    private static final class CachedPages {
+        private final long generation;
+        private final Map<String, RenderedPage> pages = new ConcurrentHashMap<>();
+
+        private CachedPages(long generation) {
+            this.generation = generation;
+        }
+    }
+}
@@ -1,23 +1,38 @@
 package com.springboot.coffee.controller;
 
+import com.springboot.coffee.catalog.CoffeePageCache;
 import com.springboot.coffee.dto.CoffeePatchDto;
 import com.springboot.coffee.dto.CoffeePostDto;
+import com.springboot.coffee.dto.TopCoffeeResponseDto;
 import com.springboot.coffee.entity.Coffee;
 import com.springboot.coffee.mapper.CoffeeMapper;
+import com.springboot.coffee.ranking.CoffeeSalesLeaderboard;
 import com.springboot.coffee.service.CoffeeService;
+import com.springboot.dto.BatchResponseDto;
 import com.springboot.dto.MultiResponseDto;
 import com.springboot.dto.SingleResponseDto;
 import com.springboot.utils.UriCreator;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/v11/coffees")
@@ -26,10 +41,13 @@ public class CoffeeController {
     private final static String COFFEE_DEFAULT_URL = "/v11/coffees";
     private CoffeeService coffeeService;
     private CoffeeMapper mapper;
+    private CoffeePageCache coffeePageCache;
 
-    public CoffeeController(CoffeeService coffeeService, CoffeeMapper coffeeMapper) {
+    public CoffeeController(CoffeeService coffeeService, CoffeeMapper coffeeMapper,
+                            CoffeePageCache coffeePageCache) {
         this.coffeeService = coffeeService;
         this.mapper = coffeeMapper;
+        this.coffeePageCache = coffeePageCache;
     }
 
     @PostMapping
@@ -52,30 +70,141 @@ public class CoffeeController {
     }
 
     @GetMapping("/{coffee-id}")
-    public ResponseEntity getCoffee(@PathVariable("coffee-id") long coffeeId) {
+    public ResponseEntity getCoffee(@PathVariable("coffee-id") long coffeeId,
+                                    WebRequest webRequest) {
+        // 커피는 카탈로그에서 찾으므로 먼저 확인해서 없는 커피는 404 를 응답한다.
+        // 세대 번호를 먼저 읽어서, 조회하는 사이에 메뉴가 바뀌면 이전 세대의 ETag 가 붙도록 한다.
+        long generation = coffeeService.getCatalogGeneration();
         Coffee coffee = coffeeService.findCoffee(coffeeId);
 
+        // 메뉴가 바뀌지 않았다면 304 Not Modified 를 응답한다.
+        if (webRequest.checkNotModified(createCatalogETag(generation))) {
+            return null;
+        }
+
         return new ResponseEntity<>(
                 new SingleResponseDto<>(mapper.coffeeToCoffeeResponseDto(coffee)),
                 HttpStatus.OK);
     }
 
+    // POS 가 장바구니의 커피를 한 번에 조회할 수 있도록 ID 목록(ids=1,2,3)으로 조회한다.
+    @GetMapping(params = "ids")
+    public ResponseEntity getCoffeesByIds(@NotEmpty @Size(max = 100) @RequestParam List<@Positive Long> ids) {
+        Map<Long, Coffee> coffees = coffeeService.findCoffees(ids);
+        List<Long> notFoundIds = ids.stream()
+                .distinct()
+                .filter(coffeeId -> !coffees.containsKey(coffeeId))
+                .collect(Collectors.toList());
+
+        return new ResponseEntity<>(
+                new BatchResponseDto<>(mapper.coffeesToCoffeeResponseDtos(new ArrayList<>(coffees.values())),
+                        notFoundIds),
+                HttpStatus.OK);
+    }
+
     @GetMapping
     public ResponseEntity getCoffees(@Positive @RequestParam int page,
-                                     @Positive @RequestParam int size) {
-        Page<Coffee> pageCoffees = coffeeService.findCoffees(page - 1, size);
-        List<Coffee> coffees = pageCoffees.getContent();
+                                     @Positive @RequestParam int size,
+                                     WebRequest webRequest) {
+        long generation = coffeeService.getCatalogGeneration();
+        boolean gzip = acceptsGzip(webRequest);
+
+        // 압축 여부에 따라 응답 바이트가 달라지므로 ETag 도 구분한다.
+        if (webRequest.checkNotModified(createCatalogETag(generation) + (gzip ? "-gzip" : ""))) {
+            return null;
+        }
+
+        // 미리 직렬화해 둔 페이지가 있으면 조회, 매핑, 직렬화 없이 바이트를 그대로 응답한다.
+        CoffeePageCache.RenderedPage renderedPage =
+                coffeePageCache.get(generation, page, size, () -> {
+                    Page<Coffee> pageCoffees = coffeeService.findCoffees(page - 1, size);
+                    List<Coffee> coffees = pageCoffees.getContent();
+
+                    return new MultiResponseDto<>(mapper.coffeesToCoffeeResponseDtos(coffees),
+                            pageCoffees);
+                });
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(renderedPage.getGzipJson());
+        }
+        return response.body(renderedPage.getJson());
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity searchCoffees(@NotBlank @RequestParam String q,
+                                        @Positive @Max(100) @RequestParam(defaultValue = "20") int size) {
+        List<Coffee> coffees = coffeeService.searchCoffees(q, size);
 
         return new ResponseEntity<>(
-                new MultiResponseDto<>(mapper.coffeesToCoffeeResponseDtos(coffees),
-                        pageCoffees),
+                new SingleResponseDto<>(mapper.coffeesToCoffeeResponseDtos(coffees)),
                 HttpStatus.OK);
     }
 
+    /*
+     키오스크의 실시간 인기 메뉴 보드에서 사용한다. 최근 window(1m ~ 60m 또는 1h) 동안 많이 팔린 커피 순위를
+     메모리에서 조회하며, 순위는 최대 1초 단위로 갱신된다.
+     */
+    @GetMapping("/top")
+    public ResponseEntity getTopCoffees(@Pattern(regexp = "([1-9]|[1-5][0-9]|60)m|1h")
+                                        @RequestParam(defaultValue = "15m") String window,
+                                        @Positive @Max(CoffeeSalesLeaderboard.MAX_SIZE)
+                                        @RequestParam(defaultValue = "10") int size) {
+        int windowMinutes = window.equals("1h") ? 60 : Integer.parseInt(window.substring(0, window.length() - 1));
+        List<TopCoffeeResponseDto> topCoffees = coffeeService.findTopSellingCoffees(windowMinutes, size);
+
+        return new ResponseEntity<>(new SingleResponseDto<>(topCoffees), HttpStatus.OK);
+    }
+
     @DeleteMapping("/{coffee-id}")
     public ResponseEntity deleteCoffee(@PathVariable("coffee-id") long coffeeId) {
         coffeeService.deleteCoffee(coffeeId);
 
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
+
+    private String createCatalogETag(long generation) {
+        return "coffees-" + generation;
+    }
+
+    /*
+     Accept-Encoding 에 gzip(또는 *)이 q=0 이 아닌 값으로 있으면 압축된 응답을 받을 수 있다.
+     gzip 이 직접 나열되어 있으면 * 보다 우선한다. (예: "*, gzip;q=0" 은 압축하지 않는다)
+     */
+    private boolean acceptsGzip(WebRequest webRequest) {
+        String acceptEncoding = webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double wildcardQuality = 0;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim();
+            if (name.equalsIgnoreCase("gzip")) {
+                return parseQuality(parameters) > 0;
+            }
+            if (name.equals("*")) {
+                wildcardQuality = parseQuality(parameters);
+            }
+        }
+        return wildcardQuality > 0;
+    }
+
+    // q 값이 없으면 1, 잘못된 값이면 받을 수 없는 것(0)으로 본다.
+    private static double parseQuality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
 }
@@ -0,0 +1,14 @@
+package com.springboot.coffee.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Builder
+@Getter
+public class TopCoffeeResponseDto {
+    private int rank;
+    private long coffeeId;
+    private String korName;
+    private String engName;
+    private long quantity;
+}
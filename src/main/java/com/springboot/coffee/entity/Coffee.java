@@ -5,6 +5,8 @@ import com.springboot.order.entity.OrderCoffee;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.util.ArrayList;
@@ -14,6 +16,8 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
+// 메뉴는 자주 읽히고 가끔 수정되므로 2차 캐시에 두고, 수정된 커피는 커밋과 함께 캐시에 반영한다.
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Coffee extends Auditable {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -39,16 +43,15 @@ public class Coffee extends Auditable {
     @OneToMany(mappedBy = "coffee")
     private List<OrderCoffee> orderCoffees = new ArrayList<>();
 
+    // 연관관계는 OrderCoffee.addCoffee() 에서 관리한다.
     public void addOrderCoffee(OrderCoffee orderCoffee) {
-        this.orderCoffees.add(orderCoffee);
-        if (orderCoffee.getCoffee() != this) {
-            orderCoffee.addCoffee(this);
-        }
+        orderCoffee.addCoffee(this);
     }
 
     public enum CoffeeStatus {
         COFFEE_FOR_SALE("판매중"),
-        COFFEE_SOLD_OUT("판매중지");
+        COFFEE_SOLD_OUT("판매중지"),
+        COFFEE_DELETED("삭제됨");
 
         @Getter
         private String status;
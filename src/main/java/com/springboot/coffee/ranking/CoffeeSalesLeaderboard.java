@@ -0,0 +1,150 @@
+package com.springboot.coffee.ranking;
+
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/*
+ 최근 일정 시간(window) 동안 가장 많이 팔린 커피 순위를 메모리에서 집계합니다. 순위를 조회할 때 DB 에 접근하지 않습니다.
+
+ - 기록: 판매 수량을 10초 단위 버킷의 커피별 LongAdder 에 더합니다. LongAdder 는 스레드마다 다른 셀에 더하므로
+   같은 커피가 동시에 팔려도 주문 스레드끼리 경합하지 않고, 버킷 교체도 CAS 로 처리하므로 락이 없습니다.
+ - 조회: window 별로 계산해 둔 상위 MAX_SIZE 개의 순위 스냅샷을 그대로 반환합니다. (O(K))
+   스냅샷은 만든 지 1초가 지나면 다음 조회에서 window 에 포함된 버킷을 합산해서 다시 만듭니다.
+ 버킷은 최대 window(60분)만큼만 원형 배열에 보관하고, 오래된 버킷은 같은 자리에 새 버킷이 만들어질 때 버려집니다.
+ */
+@Component
+public class CoffeeSalesLeaderboard {
+    public static final int MAX_WINDOW_MINUTES = 60;
+    public static final int MAX_SIZE = 20;
+    private static final long BUCKET_MILLIS = 10_000;
+    private static final int BUCKET_COUNT = (int) (MAX_WINDOW_MINUTES * 60_000L / BUCKET_MILLIS);
+    private static final long RANKING_TTL_MILLIS = 1_000;
+
+    private final AtomicReferenceArray<Bucket> buckets = new AtomicReferenceArray<>(BUCKET_COUNT);
+    private final ConcurrentMap<Integer, Ranking> rankings = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+
+    public CoffeeSalesLeaderboard() {
+        this(System::currentTimeMillis);
+    }
+
+    CoffeeSalesLeaderboard(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public void record(long coffeeId, long quantity) {
+        currentBucket(clock.getAsLong() / BUCKET_MILLIS).add(coffeeId, quantity);
+    }
+
+    // 최근 windowMinutes 분 동안의 판매 수량 순위를 size 개까지 반환합니다.
+    public List<RankedCoffee> getTopCoffees(int windowMinutes, int size) {
+        long now = clock.getAsLong();
+        Ranking ranking = rankings.get(windowMinutes);
+        if (ranking == null || ranking.isExpired(now)) {
+            // 같은 window 의 스냅샷은 한 스레드만 다시 만들고, 나머지는 만들어진 스냅샷을 사용한다.
+            ranking = rankings.compute(windowMinutes, (key, current) ->
+                    current != null && !current.isExpired(now) ? current : createRanking(windowMinutes, now));
+        }
+
+        List<RankedCoffee> rankedCoffees = ranking.rankedCoffees;
+        return rankedCoffees.subList(0, Math.min(size, rankedCoffees.size()));
+    }
+
+    private Bucket currentBucket(long epochBucket) {
+        int index = (int) (epochBucket % BUCKET_COUNT);
+        while (true) {
+            Bucket bucket = buckets.get(index);
+            if (bucket != null && bucket.epochBucket >= epochBucket) {
+                return bucket;
+            }
+            Bucket newBucket = new Bucket(epochBucket);
+            if (buckets.compareAndSet(index, bucket, newBucket)) {
+                return newBucket;
+            }
+        }
+    }
+
+    private Ranking createRanking(int windowMinutes, long now) {
+        long currentEpochBucket = now / BUCKET_MILLIS;
+        long oldestEpochBucket = currentEpochBucket - windowMinutes * 60_000L / BUCKET_MILLIS;
+
+        Map<Long, Long> quantities = new HashMap<>();
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket != null && bucket.epochBucket > oldestEpochBucket && bucket.epochBucket <= currentEpochBucket) {
+                bucket.quantities.forEach((coffeeId, quantity) ->
+                        quantities.merge(coffeeId, quantity.sum(), Long::sum));
+            }
+        }
+
+        // 수량이 많은 순(같으면 커피 ID 순)으로 상위 MAX_SIZE 개만 남긴다.
+        Comparator<RankedCoffee> order = Comparator.comparingLong(RankedCoffee::getQuantity).reversed()
+                .thenComparingLong(RankedCoffee::getCoffeeId);
+        PriorityQueue<RankedCoffee> top = new PriorityQueue<>(MAX_SIZE + 1, order.reversed());
+        quantities.forEach((coffeeId, quantity) -> {
+            top.offer(new RankedCoffee(coffeeId, quantity));
+            if (top.size() > MAX_SIZE) {
+                top.poll();
+            }
+        });
+        List<RankedCoffee> rankedCoffees = new ArrayList<>(top);
+        rankedCoffees.sort(order);
+
+        return new Ranking(Collections.unmodifiableList(rankedCoffees), now);
+    }
+
+    @Getter
+    public static final class RankedCoffee {
+        private final long coffeeId;
+        private final long quantity;
+
+        private RankedCoffee(long coffeeId, long quantity) {
+            this.coffeeId = coffeeId;
+            this.quantity = quantity;
+        }
+    }
+
+    private static final class Bucket {
+        private final long epochBucket;
+        private final ConcurrentMap<Long, LongAdder> quantities = new ConcurrentHashMap<>();
+
+        private Bucket(long epochBucket) {
+            this.epochBucket = epochBucket;
+        }
+
+        private void add(long coffeeId, long quantity) {
+            LongAdder adder = quantities.get(coffeeId);
+            if (adder == null) {
+                adder = quantities.computeIfAbsent(coffeeId, key -> new LongAdder());
+            }
+            adder.add(quantity);
+        }
+    }
+
+    private static final class Ranking {
+        private final List<RankedCoffee> rankedCoffees;
+        private final long createdAt;
+
+        private Ranking(List<RankedCoffee> rankedCoffees, long createdAt) {
+            this.rankedCoffees = rankedCoffees;
+            this.createdAt = createdAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - createdAt >= RANKING_TTL_MILLIS;
+        }
+    }
+}
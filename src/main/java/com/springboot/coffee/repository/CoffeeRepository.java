@@ -1,16 +1,48 @@
 package com.springboot.coffee.repository;
 
 import com.springboot.coffee.entity.Coffee;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
 public interface CoffeeRepository extends JpaRepository<Coffee, Long> {
+    // 조회 결과(커피 ID)를 쿼리 캐시에 두고, 커피는 엔티티 캐시에서 읽는다. COFFEE 테이블이 바뀌면 무효화된다.
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = "query.coffee.byCoffeeCode")})
     Optional<Coffee> findByCoffeeCode(String coffeeCode);
 
 //    @Query(value = "FROM Coffee c WHERE c.coffeeId = :coffeeId")
 //    @Query(value = "SELECT * FROM COFFEE WHERE coffee_Id = :coffeeId", nativeQuery =true)
     @Query(value = "SELECT c FROM Coffee c WHERE c.coffeeId = :coffeeId")
     Optional<Coffee> findByCoffee(long coffeeId);
+
+    boolean existsByCoffeeCode(String coffeeCode);
+
+    List<Coffee> findAllByCoffeeStatusNot(Coffee.CoffeeStatus coffeeStatus);
+
+    // 삭제된 커피를 포함해 가장 최근에 등록/수정/삭제된 커피의 수정 시각을 조회합니다.
+    @Query("SELECT MAX(c.modifiedAt) FROM Coffee c")
+    Optional<LocalDateTime> findLastModifiedAt();
+
+    Page<Coffee> findAllByCoffeeStatusNot(Coffee.CoffeeStatus coffeeStatus, Pageable pageable);
+
+    /*
+     삭제된 커피 중 주문(보관된 주문 포함)에 한 번도 포함되지 않은 커피의 ID 를 조회합니다.
+     주문된 적이 있는 커피는 주문 이력에 커피 이름이 남아 있어야 하므로 행을 지우지 않습니다.
+     */
+    @Query("SELECT c.coffeeId FROM Coffee c WHERE c.coffeeStatus = :coffeeStatus " +
+            "AND NOT EXISTS (SELECT oc.orderCoffeeId FROM OrderCoffee oc WHERE oc.coffee.coffeeId = c.coffeeId) " +
+            "AND NOT EXISTS (SELECT a.orderCoffeeId FROM ArchivedOrderCoffee a WHERE a.coffeeId = c.coffeeId) " +
+            "ORDER BY c.coffeeId")
+    List<Long> findUnorderedCoffeeIds(Coffee.CoffeeStatus coffeeStatus, Pageable pageable);
 }
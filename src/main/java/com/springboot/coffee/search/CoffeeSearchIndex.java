@@ -0,0 +1,297 @@
+package com.springboot.coffee.search;
+
+import com.springboot.coffee.entity.Coffee;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/*
+ 커피 이름(한글/영문) 검색을 위한 메모리 역색인(inverted index)입니다.
+
+ 커피마다 아래 네 가지 형태의 이름을 만들고, 각 이름의 1글자/2글자 n-gram 을 키로 커피 ID 목록을 보관합니다.
+  - 한글 이름, 영문 이름(소문자) : 공백을 제거한 원문
+  - 초성 : 'ㅇㅁㄹㅋㄴ' 처럼 초성만으로 검색할 때 사용
+  - 자모 : '아메리ㅋ' 처럼 입력 중인 검색어를 찾을 때 사용
+
+ 검색할 때는 검색어의 n-gram 에 해당하는 ID 목록의 교집합으로 후보를 구한 뒤,
+ 실제로 이름에 검색어가 포함되는지 다시 확인하고 일치 정도(완전 일치 > 접두어 > 부분 일치) 순으로 정렬합니다.
+ 커피가 등록/수정/삭제될 때는 해당 커피의 n-gram 만 갱신합니다.
+ */
+@Component
+public class CoffeeSearchIndex {
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    public List<Coffee> search(String query, int size) {
+        String normalizedQuery = normalize(query);
+        if (normalizedQuery.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // 초성/자모 이름은 검색어에 자모가 섞여 있을 때('ㅇㅁㄹ', '아메리ㅋ')만 확인한다.
+        boolean containsJamo = HangulJamo.containsJamo(normalizedQuery);
+        String jamoQuery = containsJamo ? HangulJamo.toJamo(normalizedQuery) : null;
+
+        TopMatches topMatches = new TopMatches(size);
+        Consumer<Long> scorer = coffeeId -> {
+            Document document = documents.get(coffeeId);
+            if (document == null) {
+                return;
+            }
+            int score = document.score(normalizedQuery, jamoQuery);
+            if (score > 0) {
+                topMatches.offer(score, document.korName.length(), coffeeId);
+            }
+        };
+
+        if (containsJamo && !jamoQuery.equals(normalizedQuery)) {
+            // 두 형태로 찾은 후보가 겹칠 수 있으므로 한 번씩만 채점한다.
+            Set<Long> candidates = new HashSet<>();
+            forEachCandidate(normalizedQuery, candidates::add);
+            forEachCandidate(jamoQuery, candidates::add);
+            candidates.forEach(scorer);
+        } else {
+            forEachCandidate(normalizedQuery, scorer);
+        }
+
+        List<Coffee> coffees = new ArrayList<>(topMatches.size());
+        for (long coffeeId : topMatches.sortedCoffeeIds()) {
+            Document document = documents.get(coffeeId);
+            if (document != null) {
+                coffees.add(document.coffee);
+            }
+        }
+        return coffees;
+    }
+
+    // 전체 메뉴로 색인을 다시 만듭니다.
+    public synchronized void rebuild(Collection<Coffee> coffees) {
+        documents.clear();
+        postings.clear();
+        coffees.forEach(this::index);
+    }
+
+    // 등록/수정된 커피의 n-gram 만 갱신합니다.
+    public synchronized void index(Coffee coffee) {
+        Document document = new Document(coffee);
+        Document previous = documents.get(coffee.getCoffeeId());
+
+        // 새 n-gram 을 먼저 추가하고 문서를 교체한 뒤 더 이상 필요 없는 n-gram 을 지운다.
+        // 읽는 쪽은 문서를 기준으로 다시 확인하므로 갱신 중간에도 잘못된 결과를 반환하지 않는다.
+        for (String gram : document.grams) {
+            postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet())
+                    .add(coffee.getCoffeeId());
+        }
+        documents.put(coffee.getCoffeeId(), document);
+
+        if (previous != null) {
+            for (String gram : previous.grams) {
+                if (!document.grams.contains(gram)) {
+                    removePosting(gram, coffee.getCoffeeId());
+                }
+            }
+        }
+    }
+
+    public synchronized void remove(long coffeeId) {
+        Document removed = documents.remove(coffeeId);
+        if (removed != null) {
+            removed.grams.forEach(gram -> removePosting(gram, coffeeId));
+        }
+    }
+
+    // 검색어의 모든 gram 을 가진 커피 ID 를 찾아 action 에 넘긴다.
+    private void forEachCandidate(String query, Consumer<Long> action) {
+        Set<String> queryGrams = query.length() == 1 ? Set.of(query) : bigrams(query);
+
+        List<Set<Long>> postingLists = new ArrayList<>(queryGrams.size());
+        for (String gram : queryGrams) {
+            Set<Long> posting = postings.get(gram);
+            if (posting == null) {
+                return;
+            }
+            postingLists.add(posting);
+        }
+        postingLists.sort(Comparator.comparingInt(Set::size));
+
+        // 가장 작은 목록을 기준으로 나머지 목록과의 교집합을 구한다.
+        for (Long coffeeId : postingLists.get(0)) {
+            boolean containsAll = true;
+            for (int i = 1; i < postingLists.size() && containsAll; i++) {
+                containsAll = postingLists.get(i).contains(coffeeId);
+            }
+            if (containsAll) {
+                action.accept(coffeeId);
+            }
+        }
+    }
+
+    private void removePosting(String gram, long coffeeId) {
+        postings.computeIfPresent(gram, (key, posting) -> {
+            posting.remove(coffeeId);
+            return posting.isEmpty() ? null : posting;
+        });
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                normalized.append(c);
+            }
+        }
+        return normalized.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> bigrams(String text) {
+        Set<String> bigrams = new HashSet<>();
+        for (int i = 0; i + 2 <= text.length(); i++) {
+            bigrams.add(text.substring(i, i + 2));
+        }
+        return bigrams;
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = bigrams(text);
+        for (int i = 0; i < text.length(); i++) {
+            grams.add(text.substring(i, i + 1));
+        }
+        return grams;
+    }
+
+    private static final class Document {
+        private static final int EXACT = 3;
+        private static final int PREFIX = 2;
+        private static final int PARTIAL = 1;
+
+        private final Coffee coffee;
+        private final String korName;
+        private final String engName;
+        private final String chosung;
+        private final String jamo;
+        private final Set<String> grams = new HashSet<>();
+
+        private Document(Coffee coffee) {
+            this.coffee = coffee;
+            this.korName = normalize(coffee.getKorName());
+            this.engName = normalize(coffee.getEngName());
+            this.chosung = HangulJamo.toChosung(korName);
+            this.jamo = HangulJamo.toJamo(korName);
+
+            grams.addAll(grams(korName));
+            grams.addAll(grams(engName));
+            grams.addAll(grams(chosung));
+            grams.addAll(grams(jamo));
+        }
+
+        private int score(String query, String jamoQuery) {
+            int score = Math.max(matchScore(korName, query), matchScore(engName, query));
+            if (jamoQuery != null) {
+                score = Math.max(score,
+                        Math.max(matchScore(chosung, query), matchScore(jamo, jamoQuery)));
+            }
+            return score;
+        }
+
+        private static int matchScore(String name, String query) {
+            if (name.equals(query)) {
+                return EXACT;
+            }
+            if (name.startsWith(query)) {
+                return PREFIX;
+            }
+            return name.contains(query) ? PARTIAL : 0;
+        }
+    }
+
+    /*
+     검색 결과 상위 size 개만 남기는 힙입니다.
+     (일치 정도, 이름 길이, ID) 를 하나의 long 값으로 묶어서 값이 작을수록 앞 순위가 되도록 만들고,
+     가장 뒤 순위의 값이 루트에 오는 최대 힙으로 관리합니다. 객체를 만들지 않고 long 비교만으로 순위를 정합니다.
+     */
+    private static final class TopMatches {
+        private final long[] heap;
+        private int size;
+
+        private TopMatches(int capacity) {
+            this.heap = new long[capacity];
+        }
+
+        private void offer(int score, int nameLength, long coffeeId) {
+            long key = ((long) (Document.EXACT - score) << 56)
+                    | ((long) Math.min(nameLength, 0xFFFF) << 40)
+                    | coffeeId;
+            if (size < heap.length) {
+                heap[size] = key;
+                siftUp(size++);
+            } else if (heap.length > 0 && key < heap[0]) {
+                heap[0] = key;
+                siftDown(0);
+            }
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private long[] sortedCoffeeIds() {
+            long[] keys = Arrays.copyOf(heap, size);
+            Arrays.sort(keys);
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = keys[i] & 0xFF_FFFF_FFFFL;
+            }
+            return keys;
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (heap[parent] >= heap[index]) {
+                    return;
+                }
+                swap(parent, index);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int largest = index;
+                int left = index * 2 + 1;
+                int right = left + 1;
+                if (left < size && heap[left] > heap[largest]) {
+                    largest = left;
+                }
+                if (right < size && heap[right] > heap[largest]) {
+                    largest = right;
+                }
+                if (largest == index) {
+                    return;
+                }
+                swap(index, largest);
+                index = largest;
+            }
+        }
+
+        private void swap(int i, int j) {
+            long temp = heap[i];
+            heap[i] = heap[j];
+            heap[j] = temp;
+        }
+    }
+}
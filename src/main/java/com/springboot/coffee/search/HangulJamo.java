@@ -0,0 +1,81 @@
+package com.springboot.coffee.search;
+
+/*
+ 한글 음절을 초성/자모 단위로 분해하는 유틸 클래스입니다.
+ '아메리카노' 를 'ㅇㅁㄹㅋㄴ'(초성) 또는 'ㅇㅏㅁㅔㄹㅣㅋㅏㄴㅗ'(자모)로 바꿔서,
+ 'ㅇㅁㄹ' 같은 초성 검색이나 '아메리ㅋ' 처럼 입력 중인 검색어도 찾을 수 있게 합니다.
+ */
+public class HangulJamo {
+    private static final char HANGUL_BEGIN = 0xAC00;
+    private static final char HANGUL_END = 0xD7A3;
+    private static final char JAMO_BEGIN = 0x3131;
+    private static final char JAMO_END = 0x318E;
+    private static final int JUNGSUNG_COUNT = 21;
+    private static final int JONGSUNG_COUNT = 28;
+
+    private static final char[] CHOSUNG = {
+            'ㄱ', 'ㄲ', 'ㄴ', 'ㄷ', 'ㄸ', 'ㄹ', 'ㅁ', 'ㅂ', 'ㅃ', 'ㅅ',
+            'ㅆ', 'ㅇ', 'ㅈ', 'ㅉ', 'ㅊ', 'ㅋ', 'ㅌ', 'ㅍ', 'ㅎ'
+    };
+
+    private static final char[] JUNGSUNG = {
+            'ㅏ', 'ㅐ', 'ㅑ', 'ㅒ', 'ㅓ', 'ㅔ', 'ㅕ', 'ㅖ', 'ㅗ', 'ㅘ',
+            'ㅙ', 'ㅚ', 'ㅛ', 'ㅜ', 'ㅝ', 'ㅞ', 'ㅟ', 'ㅠ', 'ㅡ', 'ㅢ', 'ㅣ'
+    };
+
+    // 0 번은 받침이 없는 경우입니다.
+    private static final char[] JONGSUNG = {
+            0, 'ㄱ', 'ㄲ', 'ㄳ', 'ㄴ', 'ㄵ', 'ㄶ', 'ㄷ', 'ㄹ', 'ㄺ',
+            'ㄻ', 'ㄼ', 'ㄽ', 'ㄾ', 'ㄿ', 'ㅀ', 'ㅁ', 'ㅂ', 'ㅄ', 'ㅅ',
+            'ㅆ', 'ㅇ', 'ㅈ', 'ㅊ', 'ㅋ', 'ㅌ', 'ㅍ', 'ㅎ'
+    };
+
+    // 한글 음절은 초성으로 바꾸고, 그 외의 문자는 그대로 둡니다.
+    public static String toChosung(String text) {
+        StringBuilder chosung = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (isHangulSyllable(c)) {
+                chosung.append(CHOSUNG[(c - HANGUL_BEGIN) / (JUNGSUNG_COUNT * JONGSUNG_COUNT)]);
+            } else {
+                chosung.append(c);
+            }
+        }
+        return chosung.toString();
+    }
+
+    // 한글 음절은 초성, 중성, 종성 자모로 풀어 쓰고, 그 외의 문자는 그대로 둡니다.
+    public static String toJamo(String text) {
+        StringBuilder jamo = new StringBuilder(text.length() * 3);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (isHangulSyllable(c)) {
+                int index = c - HANGUL_BEGIN;
+                jamo.append(CHOSUNG[index / (JUNGSUNG_COUNT * JONGSUNG_COUNT)]);
+                jamo.append(JUNGSUNG[(index % (JUNGSUNG_COUNT * JONGSUNG_COUNT)) / JONGSUNG_COUNT]);
+                char jongsung = JONGSUNG[index % JONGSUNG_COUNT];
+                if (jongsung != 0) {
+                    jamo.append(jongsung);
+                }
+            } else {
+                jamo.append(c);
+            }
+        }
+        return jamo.toString();
+    }
+
+    // 'ㅇ', 'ㅏ' 처럼 음절을 이루지 않은 자모가 포함되어 있는지 확인합니다.
+    public static boolean containsJamo(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= JAMO_BEGIN && c <= JAMO_END) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isHangulSyllable(char c) {
+        return c >= HANGUL_BEGIN && c <= HANGUL_END;
+    }
+}
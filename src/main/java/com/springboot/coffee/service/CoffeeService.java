@@ -1,22 +1,67 @@
 package com.springboot.coffee.service;
 
+import com.springboot.coffee.catalog.CoffeeCatalog;
+import com.springboot.coffee.dto.TopCoffeeResponseDto;
 import com.springboot.coffee.entity.Coffee;
+import com.springboot.coffee.ranking.CoffeeSalesLeaderboard;
 import com.springboot.coffee.repository.CoffeeRepository;
+import com.springboot.coffee.search.CoffeeSearchIndex;
 import com.springboot.exception.BusinessLogicException;
 import com.springboot.exception.ExceptionCode;
+import com.springboot.metrics.SingleFlightRegistry;
+import com.springboot.utils.SingleFlight;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 public class CoffeeService {
     private final CoffeeRepository coffeeRepository;
+    private final CoffeeCatalog coffeeCatalog;
+    private final CoffeeSearchIndex coffeeSearchIndex;
+    private final CoffeeSalesLeaderboard coffeeSalesLeaderboard;
 
-    public CoffeeService(CoffeeRepository coffeeRepository) {
+    // 같은 페이지를 동시에 요청하면 DB 조회는 한 번만 실행한다.
+    private final SingleFlight<String, Page<Coffee>> coffeePageLoads;
+
+    public CoffeeService(CoffeeRepository coffeeRepository, CoffeeCatalog coffeeCatalog,
+                         CoffeeSearchIndex coffeeSearchIndex,
+                         CoffeeSalesLeaderboard coffeeSalesLeaderboard,
+                         SingleFlightRegistry singleFlightRegistry) {
         this.coffeeRepository = coffeeRepository;
+        this.coffeeCatalog = coffeeCatalog;
+        this.coffeeSearchIndex = coffeeSearchIndex;
+        this.coffeeSalesLeaderboard = coffeeSalesLeaderboard;
+        this.coffeePageLoads = singleFlightRegistry.create("coffee.findCoffees");
+    }
+
+    /*
+     애플리케이션이 요청을 받기 전에 전체 메뉴를 카탈로그와 검색 색인에 올려둔다.
+     세대 번호는 메뉴의 마지막 수정 시각(밀리초)으로 정해서, 재시작하거나 서버가 여러 대여도
+     같은 메뉴에는 같은 ETag 를 응답한다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadCatalog() {
+        long generation = coffeeRepository.findLastModifiedAt()
+                .map(lastModifiedAt -> lastModifiedAt.toInstant(ZoneOffset.UTC).toEpochMilli())
+                .orElse(0L);
+        coffeeCatalog.reload(coffeeRepository.findAllByCoffeeStatusNot(Coffee.CoffeeStatus.COFFEE_DELETED),
+                generation);
+        coffeeSearchIndex.rebuild(coffeeCatalog.findAll());
     }
 
     public Coffee createCoffee(Coffee coffee) {
@@ -27,12 +72,16 @@ public class CoffeeService {
         verifyExistCoffee(coffeeCode);
         coffee.setCoffeeCode(coffeeCode);
 
-        return coffeeRepository.save(coffee);
+        Coffee savedCoffee = coffeeRepository.save(coffee);
+        publish(savedCoffee);
+
+        return savedCoffee;
     }
 
     public Coffee updateCoffee(Coffee coffee) {
         // 조회하려는 커피가 검증된 커피인지 확인(존재하는 커피인지 확인 등)
-        Coffee findCoffee = findVerifiedCoffee(coffee.getCoffeeId());
+        // 카탈로그의 커피는 공유 객체이므로 수정할 때는 DB 에서 읽어 온 객체를 사용한다.
+        Coffee findCoffee = findVerifiedCoffeeByQuery(coffee.getCoffeeId());
 
         Optional.ofNullable(coffee.getKorName())
                 .ifPresent(korName -> findCoffee.setKorName(korName));
@@ -42,27 +91,101 @@ public class CoffeeService {
                 .ifPresent(price -> findCoffee.setPrice(price));
 
         Optional.ofNullable(coffee.getCoffeeStatus())
-                .ifPresent(coffeeStatus -> findCoffee.setCoffeeStatus(coffeeStatus));
+                .ifPresent(coffeeStatus -> findCoffee.setCoffeeStatus(verifyCoffeeStatus(coffeeStatus)));
 
-        return coffeeRepository.save(findCoffee);
+        Coffee savedCoffee = coffeeRepository.save(findCoffee);
+        publish(savedCoffee);
+
+        return savedCoffee;
     }
 
     public Coffee findCoffee(long coffeeId) {
-         return findVerifiedCoffeeByQuery(coffeeId);
+         return findVerifiedCoffee(coffeeId);
+    }
+
+    /*
+     여러 커피를 한 번에 조회합니다. 반환되는 Map 은 요청한 ID 순서를 따르며, 찾지 못한 ID 는 포함하지 않습니다.
+     카탈로그에 없는 ID 만 모아서 한 번의 쿼리로 조회합니다.
+     DB 에서 읽은 커피는 카탈로그에 넣지 않습니다. 읽은 뒤에 커피가 삭제되면 삭제된 커피가 카탈로그에 다시 들어가기 때문입니다.
+     */
+    public Map<Long, Coffee> findCoffees(Collection<Long> coffeeIds) {
+        Map<Long, Coffee> findCoffees = new LinkedHashMap<>();
+        List<Long> uncachedCoffeeIds = new ArrayList<>();
+
+        for (Long coffeeId : new LinkedHashSet<>(coffeeIds)) {
+            Optional<Coffee> coffee = coffeeCatalog.findById(coffeeId);
+            findCoffees.put(coffeeId, coffee.orElse(null));
+            if (coffee.isEmpty()) {
+                uncachedCoffeeIds.add(coffeeId);
+            }
+        }
+
+        if (!uncachedCoffeeIds.isEmpty()) {
+            for (Coffee coffee : coffeeRepository.findAllById(uncachedCoffeeIds)) {
+                if (coffee.getCoffeeStatus() == Coffee.CoffeeStatus.COFFEE_DELETED) {
+                    continue;
+                }
+                findCoffees.put(coffee.getCoffeeId(), coffee);
+            }
+        }
+
+        findCoffees.values().removeIf(Objects::isNull);
+        return findCoffees;
     }
 
     public Page<Coffee> findCoffees(int page, int size) {
-        return coffeeRepository.findAll(PageRequest.of(page, size,
-                Sort.by("coffeeId").descending()));
+        // 메뉴가 바뀐 뒤의 요청이 바뀌기 전에 시작된 조회 결과를 받지 않도록 세대 번호를 키에 포함한다.
+        return coffeePageLoads.load(coffeeCatalog.getGeneration() + ":" + page + ":" + size,
+                () -> coffeeRepository.findAllByCoffeeStatusNot(Coffee.CoffeeStatus.COFFEE_DELETED,
+                        PageRequest.of(page, size, Sort.by("coffeeId").descending())));
+    }
+
+    // 한글/영문 이름, 초성, 입력 중인 자모로 커피를 검색한다.
+    public List<Coffee> searchCoffees(String query, int size) {
+        return coffeeSearchIndex.search(query, size);
+    }
+
+    // 최근 windowMinutes 분 동안 가장 많이 팔린 커피를 size 개까지 반환한다. DB 를 조회하지 않는다.
+    public List<TopCoffeeResponseDto> findTopSellingCoffees(int windowMinutes, int size) {
+        List<TopCoffeeResponseDto> topCoffees = new ArrayList<>(size);
+        for (CoffeeSalesLeaderboard.RankedCoffee rankedCoffee :
+                coffeeSalesLeaderboard.getTopCoffees(windowMinutes, CoffeeSalesLeaderboard.MAX_SIZE)) {
+            if (topCoffees.size() == size) {
+                break;
+            }
+            // 삭제된 커피는 순위에서 제외한다.
+            coffeeCatalog.findById(rankedCoffee.getCoffeeId()).ifPresent(coffee ->
+                    topCoffees.add(TopCoffeeResponseDto.builder()
+                            .rank(topCoffees.size() + 1)
+                            .coffeeId(coffee.getCoffeeId())
+                            .korName(coffee.getKorName())
+                            .engName(coffee.getEngName())
+                            .quantity(rankedCoffee.getQuantity())
+                            .build()));
+        }
+
+        return topCoffees;
+    }
+
+    // 메뉴가 바뀔 때마다 증가하는 값으로, 커피 조회 응답의 ETag 를 만들 때 사용한다.
+    public long getCatalogGeneration() {
+        return coffeeCatalog.getGeneration();
     }
 
+    /*
+     커피를 바로 지우지 않고 삭제 상태로만 바꿉니다. 주문 커피가 커피를 참조하고 있어 행을 지우면 주문 이력이 깨지기 때문입니다.
+     삭제된 커피는 메뉴 조회와 주문에서 제외되며, 주문된 적이 없는 커피는 SoftDeletePurger 가 나중에 지웁니다.
+     */
     public void deleteCoffee(long coffeeId) {
-        Coffee coffee = findVerifiedCoffee(coffeeId);
-        coffeeRepository.delete(coffee);
+        Coffee coffee = findVerifiedCoffeeByQuery(coffeeId);
+        coffee.setCoffeeStatus(Coffee.CoffeeStatus.COFFEE_DELETED);
+        coffeeRepository.save(coffee);
+        unpublish(coffeeId);
     }
 
+    // 주문 검증과 커피 조회는 DB 대신 카탈로그 스냅샷에서 찾는다.
     public Coffee findVerifiedCoffee(long coffeeId) {
-        Optional<Coffee> optionalCoffee = coffeeRepository.findById(coffeeId);
+        Optional<Coffee> optionalCoffee = coffeeCatalog.findById(coffeeId);
         Coffee findCoffee =
                 optionalCoffee.orElseThrow(() ->
                         new BusinessLogicException(ExceptionCode.COFFEE_NOT_FOUND));
@@ -70,14 +193,63 @@ public class CoffeeService {
         return findCoffee;
     }
 
+    /*
+     주문에 포함된 커피들을 findCoffees() 로 한 번에 조회해서 검증합니다.
+     존재하지 않거나 판매 중지된 커피가 있으면 해당 ID 를 모두 담아 예외를 던집니다.
+     */
+    public Map<Long, Coffee> findVerifiedCoffees(Collection<Long> coffeeIds) {
+        Map<Long, Coffee> findCoffees = findCoffees(coffeeIds);
+
+        List<Long> notFoundCoffeeIds = coffeeIds.stream()
+                .distinct()
+                .filter(coffeeId -> !findCoffees.containsKey(coffeeId))
+                .collect(Collectors.toList());
+        if (!notFoundCoffeeIds.isEmpty()) {
+            throw new BusinessLogicException(ExceptionCode.COFFEE_NOT_FOUND,
+                    ExceptionCode.COFFEE_NOT_FOUND.getMessage() + ": " + notFoundCoffeeIds);
+        }
+
+        List<Long> soldOutCoffeeIds = findCoffees.values().stream()
+                .filter(coffee -> coffee.getCoffeeStatus() == Coffee.CoffeeStatus.COFFEE_SOLD_OUT)
+                .map(Coffee::getCoffeeId)
+                .collect(Collectors.toList());
+        if (!soldOutCoffeeIds.isEmpty()) {
+            throw new BusinessLogicException(ExceptionCode.COFFEE_SOLD_OUT,
+                    ExceptionCode.COFFEE_SOLD_OUT.getMessage() + ": " + soldOutCoffeeIds);
+        }
+
+        return findCoffees;
+    }
+
+    // 저장된 커피를 카탈로그와 검색 색인에 반영한다.
+    private void publish(Coffee coffee) {
+        coffeeCatalog.put(coffee);
+        coffeeSearchIndex.index(coffee);
+    }
+
+    private void unpublish(long coffeeId) {
+        coffeeCatalog.remove(coffeeId);
+        coffeeSearchIndex.remove(coffeeId);
+    }
+
+    // 삭제된 커피는 카탈로그에 없지만 지워지기 전까지 커피 코드를 사용하고 있으므로 DB 도 확인한다.
     private void verifyExistCoffee(String coffeeCode) {
-        Optional<Coffee> coffee = coffeeRepository.findByCoffeeCode(coffeeCode);
-        if(coffee.isPresent())
+        Optional<Coffee> coffee = coffeeCatalog.findByCoffeeCode(coffeeCode);
+        if(coffee.isPresent() || coffeeRepository.existsByCoffeeCode(coffeeCode))
             throw new BusinessLogicException(ExceptionCode.COFFEE_CODE_EXISTS);
     }
 
+    // 삭제는 커피 삭제 요청으로만 할 수 있다.
+    private Coffee.CoffeeStatus verifyCoffeeStatus(Coffee.CoffeeStatus coffeeStatus) {
+        if (coffeeStatus == Coffee.CoffeeStatus.COFFEE_DELETED) {
+            throw new BusinessLogicException(ExceptionCode.INVALID_COFFEE_STATUS);
+        }
+        return coffeeStatus;
+    }
+
     private Coffee findVerifiedCoffeeByQuery(long coffeeId) {
-        Optional<Coffee> optionalCoffee = coffeeRepository.findByCoffee(coffeeId);
+        Optional<Coffee> optionalCoffee = coffeeRepository.findByCoffee(coffeeId)
+                .filter(coffee -> coffee.getCoffeeStatus() != Coffee.CoffeeStatus.COFFEE_DELETED);
         Coffee findCoffee =
                 optionalCoffee.orElseThrow(() ->
                         new BusinessLogicException(ExceptionCode.COFFEE_NOT_FOUND));
@@ -0,0 +1,44 @@
+package com.springboot.config;
+
+import com.springboot.datasource.ConnectionPoolMetrics;
+import com.springboot.datasource.InstrumentedDataSource;
+import com.springboot.datasource.SqlRecorder;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/*
+ 모든 HikariDataSource(기본 DataSource, 복제본 라우팅의 원본/복제본 풀)에 ConnectionPoolMetrics 를 등록합니다.
+ 풀이 시작된 뒤에는 등록할 수 없으므로 DataSource 빈이 만들어질 때 등록합니다.
+ JPA 와 다른 컴포넌트가 사용하는 dataSource 빈은 실행된 SQL 을 SqlRecorder 에 기록하도록 InstrumentedDataSource 로 감쌉니다.
+ */
+@Configuration
+public class DataSourceMetricsConfiguration {
+
+    @Bean
+    public ConnectionPoolMetrics connectionPoolMetrics() {
+        return new ConnectionPoolMetrics();
+    }
+
+    // BeanPostProcessor 는 다른 빈보다 먼저 만들어지므로 static 으로 선언하고 메트릭 빈은 사용할 때 가져온다.
+    @Bean
+    public static BeanPostProcessor dataSourceMetricsPostProcessor(ObjectProvider<ConnectionPoolMetrics> connectionPoolMetrics,
+                                                                  ObjectProvider<SqlRecorder> sqlRecorder) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource) {
+                    ((HikariDataSource) bean).setMetricsTrackerFactory(connectionPoolMetrics.getObject());
+                }
+                if (beanName.equals("dataSource") && bean instanceof DataSource) {
+                    return new InstrumentedDataSource((DataSource) bean, sqlRecorder.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,72 @@
+package com.springboot.config;
+
+import com.springboot.datasource.ReadWriteRoutingDataSource;
+import com.springboot.datasource.ReadYourWritesTracker;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/*
+ spring.datasource.replica.url 이 설정되어 있으면 읽기 전용 트랜잭션을 복제본으로 보냅니다.
+ 설정하지 않으면 이 설정은 적용되지 않고 spring.datasource 하나만 사용합니다.
+
+ 원본 커넥션 풀은 spring.datasource.*, spring.datasource.hikari.* 로,
+ 복제본 커넥션 풀은 spring.datasource.replica.*, spring.datasource.replica.hikari.* 로 설정합니다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.datasource.replica.url")
+public class DataSourceRoutingConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            @Value("${spring.datasource.replica.url}") String url,
+            @Value("${spring.datasource.replica.username:${spring.datasource.username:sa}}") String username,
+            @Value("${spring.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            @Value("${spring.datasource.replica.read-your-writes-millis:2000}") long readYourWritesMillis) {
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource,
+                new ReadYourWritesTracker(readYourWritesMillis));
+    }
+
+    // JPA 와 다른 컴포넌트는 이 DataSource 를 사용합니다.
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -8,6 +8,11 @@ import com.springboot.auth.handler.MemberAuthenticationEntryPoint;
 import com.springboot.auth.handler.MemberAuthenticationFailureHandler;
 import com.springboot.auth.handler.MemberAuthenticationSuccessHandler;
 import com.springboot.auth.jwt.JwtTokenizer;
+import com.springboot.auth.jwt.TokenRevocations;
+import com.springboot.datasource.SqlRecorder;
+import com.springboot.datasource.SqlRequestFilter;
+import com.springboot.metrics.RouteLatencyFilter;
+import com.springboot.metrics.RouteLatencyRecorder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -29,13 +34,22 @@ import static org.springframework.security.config.Customizer.withDefaults;
 
 @Configuration
 public class SecurityConfiguration {
+    private static final String LOGIN_URL = "/v11/auth/login";
 
     private final JwtTokenizer jwtTokenizer;
     private final AuthorityUtils authorityUtils;
+    private final TokenRevocations tokenRevocations;
+    private final SqlRecorder sqlRecorder;
+    private final RouteLatencyRecorder routeLatencyRecorder;
 
-    public SecurityConfiguration(JwtTokenizer jwtTokenizer, AuthorityUtils authorityUtils) {
+    public SecurityConfiguration(JwtTokenizer jwtTokenizer, AuthorityUtils authorityUtils,
+                                 TokenRevocations tokenRevocations, SqlRecorder sqlRecorder,
+                                 RouteLatencyRecorder routeLatencyRecorder) {
         this.jwtTokenizer = jwtTokenizer;
         this.authorityUtils = authorityUtils;
+        this.tokenRevocations = tokenRevocations;
+        this.sqlRecorder = sqlRecorder;
+        this.routeLatencyRecorder = routeLatencyRecorder;
     }
 
     @Bean
@@ -84,6 +98,15 @@ public class SecurityConfiguration {
 
                         .antMatchers(HttpMethod.DELETE, "/*/members/**").hasAnyRole("USER")
 
+                        //전체 주문 내보내기와 주문 상태 일괄 변경은 관리자만 접근이 가능합니다.
+                        .antMatchers(HttpMethod.GET, "/*/orders/export").hasRole("ADMIN")
+                        .antMatchers(HttpMethod.PATCH, "/*/orders").hasRole("ADMIN")
+
+                        //내부 메트릭 같은 관리용 엔드포인트는 관리자만 접근이 가능합니다.
+                        .antMatchers("/*/admin/**").hasRole("ADMIN")
+                        //매출 리포트는 관리자만 접근이 가능합니다.
+                        .antMatchers("/*/reports/**").hasRole("ADMIN")
+
                         // 6. jwt를 적용하기 전이므로 우선은 모든 http request 요청에 대해서 접근을 허용하도록 설정했습니다.
                         .anyRequest().permitAll()   //서버 측으로 들어오는 모든 request에 대해서 접근을 허용하고 있다.
 
@@ -130,7 +153,7 @@ public class SecurityConfiguration {
             //로그인 요청을 처리하는 JWT 기반 인증 필터입니다.
             //생성자로 authenticationManger 와 jwtTokenizer (JWT 토큰을 다루는 유틸 클래스)를 주입받습니다.
             JwtAuthenticationFilter jwtAuthenticationFilter = new JwtAuthenticationFilter(authenticationManager, jwtTokenizer);
-            jwtAuthenticationFilter.setFilterProcessesUrl("/v11/auth/login"); //로그인 요청 url을 /v11/auth/login 으로 설정합니다.
+            jwtAuthenticationFilter.setFilterProcessesUrl(LOGIN_URL); //로그인 요청 url을 /v11/auth/login 으로 설정합니다.
 
             //사용자가 로그인에 성공하면 JWT 토큰을 생성해서 클라이언트에 반환할 수도 있습니다.
             jwtAuthenticationFilter.setAuthenticationSuccessHandler(new MemberAuthenticationSuccessHandler()); //로그인 성공 시 실행할 핸들러 설정
@@ -138,13 +161,21 @@ public class SecurityConfiguration {
 
             //filter의 인스턴스를 생성하면서 JwtVerificationFilter에서 사용되는 객체들을 생성자로 DI 해줍니다.
             //요청 헤더의 JWT 토큰을 검증하는 필터입니다. jwtTokenizer (JWT 파싱 & 검증)와 authorityUtils (사용자 권한 관리 도구)를 생성자로 주입받습니다.
-            JwtVerificaitonFilter jwtVerificaitonFilter = new JwtVerificaitonFilter(jwtTokenizer, authorityUtils);
+            JwtVerificaitonFilter jwtVerificaitonFilter = new JwtVerificaitonFilter(jwtTokenizer, authorityUtils, tokenRevocations);
 
             //VerificationFilter는 AuthenticationFilter에서 로그인 인증에 성공한 후 발급받은 JWT 클라이언트의
             //request header(Authorizaiton 헤더)에 포함되어 있을 경우에만 동작합니다.
+            //요청의 처리 시간을 경로별로 기록하는 필터입니다. 로그인과 JWT 검증 시간도 포함하도록 인증 필터보다 앞에 둡니다.
+            //로그인은 컨트롤러가 아닌 필터가 처리하므로 경로를 따로 알려 줍니다.
+            RouteLatencyFilter routeLatencyFilter = new RouteLatencyFilter(routeLatencyRecorder, LOGIN_URL);
+            //요청마다 실행된 SQL 의 개수와 DB 시간을 기록하는 필터입니다. 로그인과 JWT 검증의 쿼리도 포함하도록 인증 필터보다 앞에 둡니다.
+            SqlRequestFilter sqlRequestFilter = new SqlRequestFilter(sqlRecorder);
+
             builder
                     .addFilter(jwtAuthenticationFilter) //로그인 필터를 추가합니다. 로그인 요청 시 동작하는 jwt 인증 필터 추가
-                    .addFilterAfter(jwtVerificaitonFilter, JwtAuthenticationFilter.class); //jwt 검증 필터를 추가합니다. 로그인 후 발급된 JWT를 검증하는 JWT 검증 필터 추가
+                    .addFilterAfter(jwtVerificaitonFilter, JwtAuthenticationFilter.class) //jwt 검증 필터를 추가합니다. 로그인 후 발급된 JWT를 검증하는 JWT 검증 필터 추가
+                    .addFilterBefore(routeLatencyFilter, JwtAuthenticationFilter.class) //처리 시간 기록 필터를 추가합니다.
+                    .addFilterBefore(sqlRequestFilter, JwtAuthenticationFilter.class); //SQL 기록 필터를 추가합니다.
 
         }
     }
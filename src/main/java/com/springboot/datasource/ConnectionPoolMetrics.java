@@ -0,0 +1,61 @@
+package com.springboot.datasource;
+
+import com.springboot.metrics.LogHistogram;
+import com.springboot.metrics.MetricsSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/*
+ Hikari 커넥션 풀별로 커넥션을 빌려서 반납할 때까지 잡고 있던 시간과 커넥션을 얻기까지 기다린 시간을 기록합니다.
+ 요청 하나가 커넥션을 오래 잡고 있을수록 같은 풀 크기로 동시에 처리할 수 있는 요청 수가 줄어듭니다.
+ DataSourceMetricsConfiguration 이 HikariDataSource 에 등록합니다.
+ */
+public class ConnectionPoolMetrics implements MetricsTrackerFactory, MetricsSource {
+    private final Map<String, PoolMetrics> poolMetrics = new ConcurrentHashMap<>();
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        PoolMetrics metrics = new PoolMetrics(poolStats);
+        poolMetrics.put(poolName, metrics);
+        return metrics;
+    }
+
+    @Override
+    public Map<String, Number> getMetrics() {
+        Map<String, Number> metrics = new TreeMap<>();
+        poolMetrics.forEach((poolName, pool) -> {
+            String prefix = "datasource.pool." + poolName;
+            pool.usageMillis.putMetrics(prefix + ".usage_millis", metrics);
+            pool.acquireMicros.putMetrics(prefix + ".acquire_micros", metrics);
+            metrics.put(prefix + ".active", pool.poolStats.getActiveConnections());
+            metrics.put(prefix + ".pending", pool.poolStats.getPendingThreads());
+        });
+        return metrics;
+    }
+
+    private static class PoolMetrics implements IMetricsTracker {
+        private final PoolStats poolStats;
+        private final LogHistogram usageMillis = new LogHistogram();
+        private final LogHistogram acquireMicros = new LogHistogram();
+
+        private PoolMetrics(PoolStats poolStats) {
+            this.poolStats = poolStats;
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquireMicros.record(TimeUnit.NANOSECONDS.toMicros(elapsedAcquiredNanos));
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            usageMillis.record(elapsedBorrowedMillis);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.springboot.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/*
+ 커넥션과 Statement 를 프록시로 감싸서 실행된 SQL 과 실행 시간, 바인드 변수를 SqlRecorder 에 전달합니다.
+ 실행 시간은 execute* 호출 시간이며 결과를 읽는 시간은 포함하지 않습니다.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource implements Closeable {
+    private static final Object[] NO_PARAMETERS = new Object[0];
+
+    private final SqlRecorder sqlRecorder;
+
+    public InstrumentedDataSource(DataSource targetDataSource, SqlRecorder sqlRecorder) {
+        super(targetDataSource);
+        this.sqlRecorder = sqlRecorder;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+    }
+
+    // 애플리케이션이 종료될 때 감싼 커넥션 풀도 닫히도록 전달한다.
+    @Override
+    public void close() throws IOException {
+        if (getTargetDataSource() instanceof Closeable) {
+            ((Closeable) getTargetDataSource()).close();
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(),
+                new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    // Hibernate 는 커넥션과 Statement 를 Map 의 키로 사용하므로 equals, hashCode 는 프록시 기준으로 동작해야 한다.
+    private static boolean isIdentityMethod(Method method) {
+        return method.getName().equals("equals") || method.getName().equals("hashCode");
+    }
+
+    private static Object invokeIdentityMethod(Object proxy, Method method, Object[] args) {
+        return method.getName().equals("equals") ? proxy == args[0] : System.identityHashCode(proxy);
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+        private final Connection connection;
+
+        private ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return invokeIdentityMethod(proxy, method, args);
+            }
+
+            Object result = InstrumentedDataSource.invoke(connection, method, args);
+            if (result instanceof CallableStatement) {
+                return proxy(CallableStatement.class, new StatementHandler((Statement) result, (String) args[0]));
+            }
+            if (result instanceof PreparedStatement) {
+                return proxy(PreparedStatement.class, new StatementHandler((Statement) result, (String) args[0]));
+            }
+            if (result instanceof Statement) {
+                return proxy(Statement.class, new StatementHandler((Statement) result, null));
+            }
+            return result;
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        // PreparedStatement 의 SQL. Statement 는 execute 할 때 SQL 을 넘겨 받는다.
+        private final String sql;
+        private Object[] parameters = NO_PARAMETERS;
+        private int parameterCount;
+
+        private StatementHandler(Statement statement, String sql) {
+            this.statement = statement;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return invokeIdentityMethod(proxy, method, args);
+            }
+
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                String executedSql = args != null && args.length > 0 && args[0] instanceof String ?
+                        (String) args[0] : sql;
+                long startedAt = System.nanoTime();
+                try {
+                    return InstrumentedDataSource.invoke(statement, method, args);
+                } finally {
+                    sqlRecorder.recordStatement(executedSql == null ? "batch" : executedSql,
+                            parameters, parameterCount, System.nanoTime() - startedAt);
+                }
+            }
+
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                setParameter((Integer) args[0], name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                Arrays.fill(parameters, null);
+                parameterCount = 0;
+            }
+            return InstrumentedDataSource.invoke(statement, method, args);
+        }
+
+        private void setParameter(int index, Object value) {
+            if (index < 1) {
+                return;
+            }
+            if (index > parameters.length) {
+                parameters = Arrays.copyOf(parameters, Math.max(index, parameters.length * 2));
+            }
+            parameters[index - 1] = value;
+            parameterCount = Math.max(parameterCount, index);
+        }
+    }
+}
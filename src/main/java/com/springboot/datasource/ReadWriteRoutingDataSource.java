@@ -0,0 +1,90 @@
+package com.springboot.datasource;
+
+import com.springboot.metrics.MetricsSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ 읽기 전용 트랜잭션(@Transactional(readOnly = true))은 복제본으로, 나머지는 원본으로 커넥션을 가져옵니다.
+
+ 트랜잭션이 시작될 때는 아직 읽기 전용 여부가 설정되지 않았으므로 LazyConnectionDataSourceProxy 로 감싸서
+ 첫 쿼리가 실행될 때 커넥션을 가져와야 합니다.
+ 로그인한 회원의 쓰기 트랜잭션이 커밋되면 ReadYourWritesTracker 에 기록하고, 잠시 동안은
+ 그 회원의 읽기 전용 트랜잭션도 원본으로 보냅니다.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements MetricsSource {
+    enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    private final LongAdder primaryCount = new LongAdder();
+    private final LongAdder replicaCount = new LongAdder();
+    private final LongAdder stickyCount = new LongAdder();
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica,
+                                      ReadYourWritesTracker readYourWritesTracker) {
+        this.readYourWritesTracker = readYourWritesTracker;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String username = currentUsername();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryCount.increment();
+            trackWrite(username);
+            return Route.PRIMARY;
+        }
+        if (username != null && readYourWritesTracker.isSticky(username)) {
+            stickyCount.increment();
+            return Route.PRIMARY;
+        }
+        replicaCount.increment();
+        return Route.REPLICA;
+    }
+
+    @Override
+    public Map<String, Number> getMetrics() {
+        Map<String, Number> metrics = new TreeMap<>();
+        metrics.put("datasource.routing.primary", primaryCount.sum());
+        metrics.put("datasource.routing.replica", replicaCount.sum());
+        metrics.put("datasource.routing.sticky", stickyCount.sum());
+        return metrics;
+    }
+
+    // 커넥션은 트랜잭션마다 한 번만 가져오므로 트랜잭션마다 한 번 등록된다.
+    private void trackWrite(String username) {
+        if (username == null || !TransactionSynchronizationManager.isActualTransactionActive() ||
+                !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                readYourWritesTracker.recordWrite(username);
+            }
+        });
+    }
+
+    private String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() ||
+                authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
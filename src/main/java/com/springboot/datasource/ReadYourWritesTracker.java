@@ -0,0 +1,42 @@
+package com.springboot.datasource;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/*
+ 회원별 마지막 쓰기 시각을 보관합니다.
+ 복제본은 원본보다 조금 늦게 반영되므로, 쓰기 직후 window 동안은 그 회원의 읽기도 원본으로 보내서
+ 방금 저장한 내용이 조회되지 않는 일이 없게 합니다. 다른 회원의 읽기는 영향을 받지 않습니다.
+ */
+public class ReadYourWritesTracker {
+    // 기록이 이 개수를 넘으면 기간이 지난 기록을 지운다.
+    private static final int PRUNE_THRESHOLD = 10_000;
+
+    // username -> 마지막 쓰기 시각(epoch millis)
+    private final ConcurrentMap<String, Long> lastWrittenAt = new ConcurrentHashMap<>();
+    private final long windowMillis;
+
+    public ReadYourWritesTracker(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    public void recordWrite(String username) {
+        long now = System.currentTimeMillis();
+        lastWrittenAt.put(username, now);
+        if (lastWrittenAt.size() > PRUNE_THRESHOLD) {
+            lastWrittenAt.values().removeIf(writtenAt -> now - writtenAt >= windowMillis);
+        }
+    }
+
+    public boolean isSticky(String username) {
+        Long writtenAt = lastWrittenAt.get(username);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - writtenAt < windowMillis) {
+            return true;
+        }
+        lastWrittenAt.remove(username, writtenAt);
+        return false;
+    }
+}
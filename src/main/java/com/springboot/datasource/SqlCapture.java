@@ -0,0 +1,69 @@
+package com.springboot.datasource;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ SqlRecorder.capture() 를 호출한 스레드에서 close() 할 때까지 실행된 SQL 의 개수와 실행 시간을 모읍니다.
+ HTTP 요청마다 SqlRequestFilter 가 하나씩 만들며, 테스트에서 요청이 실행하는 쿼리 수를 확인할 때도 사용합니다.
+
+     try (SqlCapture capture = sqlRecorder.capture()) {
+         mockMvc.perform(get("/v11/orders?page=1&size=10"));
+         assertThat(capture.getStatementCount()).isLessThanOrEqualTo(3);
+     }
+
+ 캡처는 중첩될 수 있으며, 실행된 SQL 은 열려 있는 모든 캡처에 기록됩니다.
+ */
+public class SqlCapture implements AutoCloseable {
+    private final SqlRecorder sqlRecorder;
+    private final SqlCapture parent;
+    // SQL 문자열별 실행 횟수. Hibernate 는 값을 바인드 변수로 넘기므로 같은 모양의 쿼리는 같은 문자열이다.
+    private final Map<String, Integer> statementCounts = new HashMap<>();
+    private int statementCount;
+    private long elapsedNanos;
+
+    SqlCapture(SqlRecorder sqlRecorder, SqlCapture parent) {
+        this.sqlRecorder = sqlRecorder;
+        this.parent = parent;
+    }
+
+    void record(String sql, long elapsedNanos) {
+        statementCount++;
+        this.elapsedNanos += elapsedNanos;
+        statementCounts.merge(sql, 1, Integer::sum);
+    }
+
+    SqlCapture getParent() {
+        return parent;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getElapsedMicros() {
+        return elapsedNanos / 1_000;
+    }
+
+    // 실행한 SQL 별 실행 횟수를 반환한다.
+    public Map<String, Integer> getStatementCounts() {
+        return Map.copyOf(statementCounts);
+    }
+
+    // minCount 번 이상 실행된 조회 쿼리를 반환한다. (N+1 의심)
+    public Map<String, Integer> getRepeatedQueries(int minCount) {
+        Map<String, Integer> repeatedQueries = new LinkedHashMap<>();
+        statementCounts.forEach((sql, count) -> {
+            if (count >= minCount && sql.regionMatches(true, 0, "select", 0, 6)) {
+                repeatedQueries.put(sql, count);
+            }
+        });
+        return repeatedQueries;
+    }
+
+    @Override
+    public void close() {
+        sqlRecorder.endCapture(this);
+    }
+}
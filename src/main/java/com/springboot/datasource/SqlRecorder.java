@@ -0,0 +1,130 @@
+package com.springboot.datasource;
+
+import com.springboot.metrics.LogHistogram;
+import com.springboot.metrics.MetricsSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ InstrumentedDataSource 로 실행된 모든 SQL 의 실행 시간을 기록합니다.
+ - 실행 중인 스레드에 열린 SqlCapture 가 있으면 그 캡처에도 기록합니다. (요청별 쿼리 수, DB 시간)
+ - sql.slow-query-millis 이상 걸린 SQL 은 바인드 변수 요약과 함께 로그를 남깁니다.
+ - 요청 하나에서 같은 조회 쿼리가 sql.n-plus-one-threshold 번 이상 실행되면 N+1 로 보고 로그를 남깁니다.
+ */
+@Slf4j
+@Component
+public class SqlRecorder implements MetricsSource {
+    private static final int MAX_LOGGED_PARAMETERS = 10;
+    private static final int MAX_LOGGED_PARAMETER_LENGTH = 32;
+
+    private final ThreadLocal<SqlCapture> currentCapture = new ThreadLocal<>();
+    private final long slowQueryNanos;
+    private final int nPlusOneThreshold;
+
+    private final LongAdder slowStatements = new LongAdder();
+    private final LongAdder nPlusOneRequests = new LongAdder();
+    private final LogHistogram statementMicros = new LogHistogram();
+    private final LogHistogram requestStatements = new LogHistogram();
+    private final LogHistogram requestMicros = new LogHistogram();
+
+    public SqlRecorder(@Value("${sql.slow-query-millis:100}") long slowQueryMillis,
+                       @Value("${sql.n-plus-one-threshold:5}") int nPlusOneThreshold) {
+        this.slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryMillis);
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    // 현재 스레드에서 실행되는 SQL 을 모으기 시작한다. 반환된 캡처는 같은 스레드에서 닫아야 한다.
+    public SqlCapture capture() {
+        SqlCapture capture = new SqlCapture(this, currentCapture.get());
+        currentCapture.set(capture);
+        return capture;
+    }
+
+    void endCapture(SqlCapture capture) {
+        if (currentCapture.get() != capture) {
+            throw new IllegalStateException("SqlCapture must be closed in the order it was opened");
+        }
+        if (capture.getParent() == null) {
+            currentCapture.remove();
+        } else {
+            currentCapture.set(capture.getParent());
+        }
+    }
+
+    // 요청 하나가 끝났을 때 요청의 쿼리 수와 DB 시간을 기록하고, N+1 로 의심되는 쿼리를 로그로 남긴다.
+    public void recordRequest(String request, SqlCapture capture) {
+        requestStatements.record(capture.getStatementCount());
+        requestMicros.record(capture.getElapsedMicros());
+
+        Map<String, Integer> repeatedQueries = capture.getRepeatedQueries(nPlusOneThreshold);
+        if (!repeatedQueries.isEmpty()) {
+            nPlusOneRequests.increment();
+            repeatedQueries.forEach((sql, count) ->
+                    log.warn("# N+1 suspected: {} executed {} times: {}", request, count, sql));
+        }
+    }
+
+    // parameters 의 앞에서 parameterCount 개가 바인드 변수 값이며, 느린 SQL 의 로그에만 사용된다.
+    void recordStatement(String sql, Object[] parameters, int parameterCount, long elapsedNanos) {
+        statementMicros.record(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        for (SqlCapture capture = currentCapture.get(); capture != null; capture = capture.getParent()) {
+            capture.record(sql, elapsedNanos);
+        }
+
+        if (elapsedNanos >= slowQueryNanos) {
+            slowStatements.increment();
+            log.warn("# slow query {}ms: {} {}", TimeUnit.NANOSECONDS.toMillis(elapsedNanos), sql,
+                    summarize(parameters, parameterCount));
+        }
+    }
+
+    @Override
+    public Map<String, Number> getMetrics() {
+        Map<String, Number> metrics = new TreeMap<>();
+        statementMicros.putMetrics("sql.statement.micros", metrics);
+        requestStatements.putMetrics("sql.request.statements", metrics);
+        requestMicros.putMetrics("sql.request.micros", metrics);
+        metrics.put("sql.slow", slowStatements.sum());
+        metrics.put("sql.n_plus_one", nPlusOneRequests.sum());
+        return metrics;
+    }
+
+    // 바인드 변수를 [1=10, 2='아메리카노'] 형태로 요약한다. 긴 값과 너무 많은 변수는 잘라낸다.
+    private static String summarize(Object[] parameters, int parameterCount) {
+        StringBuilder summary = new StringBuilder("[");
+        for (int i = 0; i < parameterCount; i++) {
+            if (i == MAX_LOGGED_PARAMETERS) {
+                summary.append(", ...");
+                break;
+            }
+            if (i > 0) {
+                summary.append(", ");
+            }
+            summary.append(i + 1).append('=').append(summarize(parameters[i]));
+        }
+        return summary.append(']').toString();
+    }
+
+    private static String summarize(Object parameter) {
+        if (parameter == null) {
+            return "null";
+        }
+        if (parameter instanceof Number || parameter instanceof Boolean) {
+            return parameter.toString();
+        }
+        if (parameter instanceof byte[]) {
+            return "<" + ((byte[]) parameter).length + " bytes>";
+        }
+        String value = parameter.toString();
+        if (value.length() > MAX_LOGGED_PARAMETER_LENGTH) {
+            value = value.substring(0, MAX_LOGGED_PARAMETER_LENGTH) + "...(" + value.length() + ")";
+        }
+        return "'" + value + "'";
+    }
+}
@@ -0,0 +1,34 @@
+package com.springboot.datasource;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/*
+ HTTP 요청 하나가 실행한 SQL 의 개수와 DB 시간을 SqlRecorder 에 기록합니다.
+ 로그인과 JWT 검증에서 실행되는 쿼리도 포함하도록 SecurityConfiguration 에서 인증 필터보다 앞에 등록합니다.
+ 요청 스레드에서 실행된 SQL 만 기록하므로, 비동기로 처리되는 작업(주문 수집 파이프라인 등)의 쿼리는 포함되지 않습니다.
+ */
+public class SqlRequestFilter extends OncePerRequestFilter {
+    private final SqlRecorder sqlRecorder;
+
+    public SqlRequestFilter(SqlRecorder sqlRecorder) {
+        this.sqlRecorder = sqlRecorder;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        SqlCapture capture = sqlRecorder.capture();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            capture.close();
+            sqlRecorder.recordRequest(request.getMethod() + " " + request.getRequestURI(), capture);
+        }
+    }
+}
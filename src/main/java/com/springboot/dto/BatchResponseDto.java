@@ -0,0 +1,14 @@
+package com.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// ID 목록으로 한 번에 조회한 결과입니다. 찾지 못한 ID 는 notFoundIds 에 담깁니다.
+@AllArgsConstructor
+@Getter
+public class BatchResponseDto<T> {
+    private List<T> data;
+    private List<Long> notFoundIds;
+}
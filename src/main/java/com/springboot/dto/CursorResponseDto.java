@@ -0,0 +1,14 @@
+package com.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// 커서 기반 페이지 응답입니다. 다음 페이지가 없으면 nextCursor 는 null 입니다.
+@AllArgsConstructor
+@Getter
+public class CursorResponseDto<T> {
+    private List<T> data;
+    private String nextCursor;
+}
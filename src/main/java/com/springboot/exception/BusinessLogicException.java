@@ -10,4 +10,10 @@ public class BusinessLogicException extends RuntimeException {
         super(exceptionCode.getMessage());
         this.exceptionCode = exceptionCode;
     }
+
+    // 어떤 대상 때문에 실패했는지 메시지에 함께 담아야 할 때 사용합니다.
+    public BusinessLogicException(ExceptionCode exceptionCode, String message) {
+        super(message);
+        this.exceptionCode = exceptionCode;
+    }
 }
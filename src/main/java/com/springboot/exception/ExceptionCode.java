@@ -7,10 +7,14 @@ public enum ExceptionCode {
     MEMBER_EXISTS(409, "Member exists"),
     COFFEE_NOT_FOUND(404, "Coffee not found"),
     COFFEE_CODE_EXISTS(409, "Coffee Code exists"),
+    COFFEE_SOLD_OUT(409, "Coffee sold out"),
     ORDER_NOT_FOUND(404, "Order not found"),
+    INVALID_ORDER_CURSOR(400, "Invalid order cursor"),
     CANNOT_CHANGE_ORDER(403, "Order can not change"),
+    ORDER_QUEUE_FULL(503, "Order queue is full"),
     NOT_IMPLEMENTATION(501, "Not Implementation"),
-    INVALID_MEMBER_STATUS(400, "Invalid member status");
+    INVALID_MEMBER_STATUS(400, "Invalid member status"),
+    INVALID_COFFEE_STATUS(400, "Invalid coffee status");
 
     @Getter
     private int status;
@@ -0,0 +1,34 @@
+package com.springboot.job.entity;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.time.LocalDateTime;
+
+/*
+ 여러 트랜잭션에 나누어 실행되는 배치 작업이 마지막으로 처리한 위치입니다.
+ 작업 도중 서버가 재시작되어도 처음부터 다시 읽지 않고 이 위치 다음부터 이어서 처리합니다.
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+public class JobCheckpoint {
+    @Id
+    @Column(length = 100)
+    private String jobName;
+
+    @Column(nullable = false)
+    private long lastPosition;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public JobCheckpoint(String jobName) {
+        this.jobName = jobName;
+    }
+}
@@ -0,0 +1,7 @@
+package com.springboot.job.repository;
+
+import com.springboot.job.entity.JobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+}
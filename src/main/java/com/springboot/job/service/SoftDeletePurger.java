@@ -0,0 +1,134 @@
+package com.springboot.job.service;
+
+import com.springboot.coffee.entity.Coffee;
+import com.springboot.coffee.repository.CoffeeRepository;
+import com.springboot.member.entity.Member;
+import com.springboot.member.repository.MemberRepository;
+import com.springboot.metrics.MetricsSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ 삭제 요청 때 상태만 바뀐 회원과 커피를 나중에 정리합니다.
+
+ - 탈퇴한 회원(MEMBER_QUIT): 스탬프와 권한을 지우고 개인 정보를 지웁니다.
+   주문 이력과 매출 집계가 회원을 참조하므로 회원 행은 남기고 purgedAt 을 기록합니다.
+ - 삭제된 커피(COFFEE_DELETED): 주문된 적이 없는 커피만 행을 지웁니다. 주문된 커피는 삭제 상태로 남습니다.
+ 정리한 회원은 purgedAt 이 기록되고 정리한 커피는 행이 없어지므로, 매번 처음부터 찾아도 같은 행을 다시 고르지 않습니다.
+ */
+@Slf4j
+@Component
+public class SoftDeletePurger implements MetricsSource {
+    private final MemberRepository memberRepository;
+    private final CoffeeRepository coffeeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int chunkSize;
+
+    private final LongAdder purgedMemberCount = new LongAdder();
+    private final LongAdder purgedCoffeeCount = new LongAdder();
+    private final LongAdder chunkCount = new LongAdder();
+    private final AtomicLong pendingMemberCount = new AtomicLong();
+
+    public SoftDeletePurger(MemberRepository memberRepository,
+                            CoffeeRepository coffeeRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${purge.enabled:true}") boolean enabled,
+                            @Value("${purge.chunk-size:100}") int chunkSize) {
+        this.memberRepository = memberRepository;
+        this.coffeeRepository = coffeeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(fixedDelayString = "${purge.interval-millis:60000}",
+            initialDelayString = "${purge.interval-millis:60000}")
+    public void purgeDeleted() {
+        if (!enabled) {
+            return;
+        }
+        int purgedMembers = purgeQuitMembers();
+        int purgedCoffees = purgeDeletedCoffees();
+        if (purgedMembers > 0 || purgedCoffees > 0) {
+            log.info("# purged {} members, {} coffees", purgedMembers, purgedCoffees);
+        }
+    }
+
+    // 탈퇴한 회원을 모두 정리하고, 정리한 회원 수를 반환합니다.
+    public int purgeQuitMembers() {
+        int purged = 0;
+        int chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> purgeMemberChunk());
+            purged += chunk;
+        } while (chunk == chunkSize);
+
+        pendingMemberCount.set(memberRepository.countByMemberStatusAndPurgedAtIsNull(Member.MemberStatus.MEMBER_QUIT));
+        return purged;
+    }
+
+    // 주문된 적이 없는 삭제된 커피를 모두 지우고, 지운 커피 수를 반환합니다.
+    public int purgeDeletedCoffees() {
+        int purged = 0;
+        int chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> purgeCoffeeChunk());
+            purged += chunk;
+        } while (chunk == chunkSize);
+
+        return purged;
+    }
+
+    @Override
+    public Map<String, Number> getMetrics() {
+        Map<String, Number> metrics = new TreeMap<>();
+        metrics.put("purge.member.purged", purgedMemberCount.sum());
+        metrics.put("purge.member.pending", pendingMemberCount.get());
+        metrics.put("purge.coffee.purged", purgedCoffeeCount.sum());
+        metrics.put("purge.chunks", chunkCount.sum());
+        return metrics;
+    }
+
+    private int purgeMemberChunk() {
+        List<Long> memberIds = memberRepository.findUnpurgedMemberIds(Member.MemberStatus.MEMBER_QUIT,
+                PageRequest.of(0, chunkSize));
+        if (memberIds.isEmpty()) {
+            return 0;
+        }
+
+        memberRepository.deleteStampsByMemberIdIn(memberIds);
+        memberRepository.deleteRolesByMemberIdIn(memberIds);
+        memberRepository.anonymizeQuitMembers(memberIds, LocalDateTime.now());
+
+        purgedMemberCount.add(memberIds.size());
+        chunkCount.increment();
+        return memberIds.size();
+    }
+
+    private int purgeCoffeeChunk() {
+        List<Long> coffeeIds = coffeeRepository.findUnorderedCoffeeIds(Coffee.CoffeeStatus.COFFEE_DELETED,
+                PageRequest.of(0, chunkSize));
+        if (coffeeIds.isEmpty()) {
+            return 0;
+        }
+
+        coffeeRepository.deleteAllByIdInBatch(coffeeIds);
+
+        purgedCoffeeCount.add(coffeeIds.size());
+        chunkCount.increment();
+        return coffeeIds.size();
+    }
+}
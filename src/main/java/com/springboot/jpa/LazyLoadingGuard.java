@@ -0,0 +1,86 @@
+package com.springboot.jpa;
+
+import com.springboot.metrics.MetricsSource;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.HibernateException;
+import org.hibernate.LazyInitializationException;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.LoadEvent;
+import org.hibernate.event.spi.LoadEventListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ 트랜잭션 밖에서 일어나는 지연 로딩(지연 컬렉션 초기화, 프록시 초기화)을 감지합니다.
+ open-in-view 를 끈 뒤에는 조회에 필요한 연관 엔티티를 서비스의 트랜잭션 안에서 함께 조회해야 합니다.
+ 세션이 닫힌 엔티티의 지연 로딩은 Hibernate 가 LazyInitializationException 을 던지지만,
+ 트랜잭션 없이 세션만 열려 있는 구간(propagation = SUPPORTS 등)에서는 커넥션을 따로 얻어서 조회해 버리므로 여기서 감지합니다.
+ jpa.lazy-loading.fail-outside-transaction 이 true 이면 예외를 던지고, false 이면 횟수만 세고 로그를 남깁니다.
+ */
+@Slf4j
+@Component
+public class LazyLoadingGuard implements InitializeCollectionEventListener, LoadEventListener, MetricsSource {
+    private static final long serialVersionUID = 1L;
+
+    private final boolean failOutsideTransaction;
+    private final LongAdder outsideTransactionCount = new LongAdder();
+
+    public LazyLoadingGuard(EntityManagerFactory entityManagerFactory,
+                            @Value("${jpa.lazy-loading.fail-outside-transaction:false}") boolean failOutsideTransaction) {
+        this.failOutsideTransaction = failOutsideTransaction;
+
+        // 조회가 실행되기 전에 확인하도록 기본 리스너보다 앞에 등록한다.
+        EventListenerRegistry eventListenerRegistry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        eventListenerRegistry.prependListeners(EventType.INIT_COLLECTION, this);
+        eventListenerRegistry.prependListeners(EventType.LOAD, this);
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) throws HibernateException {
+        // 즉시 로딩 컬렉션은 소유 엔티티를 조회할 때 함께 초기화되므로 지연 로딩이 아니다.
+        boolean lazy = event.getSession().getFactory().getMetamodel()
+                .collectionPersister(event.getCollection().getRole()).isLazy();
+        if (lazy) {
+            checkTransaction(event.getCollection().getRole());
+        }
+    }
+
+    @Override
+    public void onLoad(LoadEvent event, LoadType loadType) throws HibernateException {
+        // IMMEDIATE_LOAD 는 프록시를 초기화할 때만 사용된다.
+        if (loadType == LoadEventListener.IMMEDIATE_LOAD) {
+            checkTransaction(event.getEntityClassName() + "#" + event.getEntityId());
+        }
+    }
+
+    public long getOutsideTransactionCount() {
+        return outsideTransactionCount.sum();
+    }
+
+    @Override
+    public Map<String, Number> getMetrics() {
+        return Map.of("jpa.lazy_load.outside_transaction", getOutsideTransactionCount());
+    }
+
+    private void checkTransaction(String target) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+
+        outsideTransactionCount.increment();
+        if (failOutsideTransaction) {
+            throw new LazyInitializationException("Lazy loading outside a transaction: " + target);
+        }
+        log.warn("# Lazy loading outside a transaction: {}", target);
+    }
+}
@@ -1,5 +1,6 @@
 package com.springboot.member.controller;
 
+import com.springboot.dto.BatchResponseDto;
 import com.springboot.dto.MultiResponseDto;
 import com.springboot.dto.SingleResponseDto;
 import com.springboot.member.dto.MemberDto;
@@ -14,11 +15,17 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 
 /**
@@ -67,13 +74,35 @@ public class MemberController {
 
     @GetMapping("/{member-id}")
     public ResponseEntity getMember(
-            @PathVariable("member-id") @Positive long memberId) {
+            @PathVariable("member-id") @Positive long memberId,
+            WebRequest webRequest) {
+        // 회원 정보가 바뀌지 않았다면 엔티티를 로딩하지 않고 304 Not Modified 를 응답한다.
+        String memberVersion = memberService.findMemberVersion(memberId);
+        if (memberVersion != null &&
+                webRequest.checkNotModified("member-" + memberId + "-" + memberVersion)) {
+            return null;
+        }
+
         Member member = memberService.findMember(memberId);
         return new ResponseEntity<>(
                 new SingleResponseDto<>(mapper.memberToMemberResponse(member))
                 , HttpStatus.OK);
     }
 
+    @GetMapping(params = "ids")
+    public ResponseEntity getMembersByIds(@NotEmpty @Size(max = 100) @RequestParam List<@Positive Long> ids) {
+        Map<Long, Member> members = memberService.findMembers(ids);
+        List<Long> notFoundIds = ids.stream()
+                .distinct()
+                .filter(memberId -> !members.containsKey(memberId))
+                .collect(Collectors.toList());
+
+        return new ResponseEntity<>(
+                new BatchResponseDto<>(mapper.membersToMemberResponses(new ArrayList<>(members.values())),
+                        notFoundIds),
+                HttpStatus.OK);
+    }
+
     @GetMapping
     public ResponseEntity getMembers(@Positive @RequestParam int page,
                                      @Positive @RequestParam int size) {
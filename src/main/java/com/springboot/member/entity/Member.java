@@ -6,8 +6,14 @@ import com.springboot.stamp.Stamp;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.LazyToOne;
+import org.hibernate.annotations.LazyToOneOption;
 
 import javax.persistence.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -15,6 +21,12 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
+@Table(indexes = {
+        // 탈퇴 후 아직 정리되지 않은 회원을 찾을 때 사용한다.
+        @Index(name = "idx_member_status_purged_at", columnList = "memberStatus, purgedAt")
+})
+// 로그인과 주문마다 조회되므로 권한 목록과 함께 2차 캐시에 둔다.
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Member extends Auditable {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -37,16 +49,23 @@ public class Member extends Auditable {
     @Column(length = 20, nullable = false)
     private MemberStatus memberStatus = MemberStatus.MEMBER_ACTIVE;
 
+    // 탈퇴한 회원의 개인 정보를 지운 시각. 탈퇴 후 정리되기 전까지는 null 이다.
+    private LocalDateTime purgedAt;
+
     @OneToMany(mappedBy = "member")
     private List<Order> orders = new ArrayList<>();
 
     // 수정된 부분
-    @OneToOne(mappedBy = "member", cascade = {CascadeType.PERSIST, CascadeType.REMOVE})
+    // 연관관계의 주인이 아닌 쪽의 @OneToOne 은 프록시로 지연 로딩할 수 없으므로 바이트코드 향상(build.gradle)으로 지연 로딩한다.
+    // 스탬프가 필요한 조회는 MemberRepository 의 @EntityGraph 메서드로 함께 조회한다.
+    @OneToOne(mappedBy = "member", cascade = {CascadeType.PERSIST, CascadeType.REMOVE}, fetch = FetchType.LAZY)
+    @LazyToOne(LazyToOneOption.NO_PROXY)
     private Stamp stamp;
 
     //roles 필드를 추가합니다.
     // ElementCollection 애너테이션을 이용해 사용자 등록 시, 사용자의 권한을 등록하기 위한 권한 테이블을 생성합니다.
     @ElementCollection(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<String> roles = new ArrayList<>();
 
     public Member(String email) {
@@ -59,10 +78,14 @@ public class Member extends Auditable {
         this.phone = phone;
     }
 
+    // 주문 이력 전체가 조회되지 않도록 orders 는 이미 로딩된 경우에만 함께 맞춰 준다.
     public void setOrder(Order order) {
-        orders.add(order);
-        if (order.getMember() != this) {
-            order.setMember(this);
+        if (order.getMember() == this) {
+            return;
+        }
+        order.setMember(this);
+        if (Hibernate.isInitialized(orders)) {
+            orders.add(order);
         }
     }
 
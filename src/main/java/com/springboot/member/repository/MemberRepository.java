@@ -1,10 +1,108 @@
 package com.springboot.member.repository;
 
 import com.springboot.member.entity.Member;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
 public interface MemberRepository extends JpaRepository<Member, Long> {
+    // 조회 결과(회원 ID)를 쿼리 캐시에 두고, 회원은 엔티티 캐시에서 읽는다. MEMBER 테이블이 바뀌면 무효화된다.
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = "query.member.byEmail")})
     Optional<Member> findByEmail(String email);
+
+    // 응답에 스탬프 개수가 포함되므로 지연 로딩되는 스탬프를 함께 조회한다.
+    @EntityGraph(attributePaths = "stamp")
+    Page<Member> findAllByMemberStatusNot(Member.MemberStatus memberStatus, Pageable pageable);
+
+    // 스탬프까지 로딩된 회원을 조회한다. 조회한 회원을 트랜잭션 밖에서 사용하거나 스탬프를 변경할 때 사용한다.
+    @EntityGraph(attributePaths = "stamp")
+    Optional<Member> findWithStampByMemberId(long memberId);
+
+    boolean existsByMemberIdAndMemberStatusNot(long memberId, Member.MemberStatus memberStatus);
+
+    // 엔티티를 로딩하지 않고 회원과 스탬프의 마지막 수정 시각만 조회한다.
+    @Query("SELECT m.modifiedAt AS memberModifiedAt, s.modifiedAt AS stampModifiedAt " +
+            "FROM Member m LEFT JOIN m.stamp s WHERE m.memberId = :memberId AND m.memberStatus <> :memberStatus")
+    Optional<MemberVersion> findVersionByMemberIdAndMemberStatusNot(long memberId, Member.MemberStatus memberStatus);
+
+    // 응답에 스탬프 개수가 포함되므로 스탬프를 함께 조회해서 회원마다 스탬프 쿼리가 실행되지 않게 한다.
+    @Query("SELECT m FROM Member m LEFT JOIN FETCH m.stamp WHERE m.memberId IN :memberIds")
+    List<Member> findAllWithStampByMemberIdIn(Collection<Long> memberIds);
+
+    /*
+     inactiveSince 이후로 주문(보관된 주문 포함)이 없는 활동 회원의 ID 를 lastMemberId 다음부터 ID 순으로 조회합니다.
+     회원은 기본 키 순서로, 주문은 (MEMBER_ID, created_at) 인덱스로 회원마다 한 번씩만 확인하므로
+     전체 주문을 집계하지 않습니다. inactiveSince 이후에 가입한 회원은 제외합니다.
+     */
+    @Query("SELECT m.memberId FROM Member m " +
+            "WHERE m.memberId > :lastMemberId AND m.memberStatus = :memberStatus AND m.createdAt < :inactiveSince " +
+            "AND NOT EXISTS (SELECT o.orderId FROM ORDERS o " +
+            "WHERE o.member.memberId = m.memberId AND o.createdAt >= :inactiveSince) " +
+            "AND NOT EXISTS (SELECT a.orderId FROM ORDERS_ARCHIVE a " +
+            "WHERE a.memberId = m.memberId AND a.createdAt >= :inactiveSince) " +
+            "ORDER BY m.memberId")
+    List<Long> findInactiveMemberIds(long lastMemberId, Member.MemberStatus memberStatus,
+                                     LocalDateTime inactiveSince, Pageable pageable);
+
+    /*
+     조회한 뒤에 상태가 바뀌었거나 주문한 회원은 건너뛰도록 조회 조건을 다시 확인하면서 상태를 바꿉니다.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Member m SET m.memberStatus = :newStatus, m.modifiedAt = :modifiedAt " +
+            "WHERE m.memberId IN :memberIds AND m.memberStatus = :currentStatus " +
+            "AND NOT EXISTS (SELECT o.orderId FROM ORDERS o " +
+            "WHERE o.member.memberId = m.memberId AND o.createdAt >= :inactiveSince) " +
+            "AND NOT EXISTS (SELECT a.orderId FROM ORDERS_ARCHIVE a " +
+            "WHERE a.memberId = m.memberId AND a.createdAt >= :inactiveSince)")
+    int updateInactiveMemberStatuses(Collection<Long> memberIds, Member.MemberStatus currentStatus,
+                                     Member.MemberStatus newStatus, LocalDateTime inactiveSince,
+                                     LocalDateTime modifiedAt);
+
+    @Query("SELECT m.email FROM Member m WHERE m.memberId IN :memberIds AND m.memberStatus = :memberStatus")
+    List<String> findEmailsByMemberIdInAndMemberStatus(Collection<Long> memberIds, Member.MemberStatus memberStatus);
+
+    // 탈퇴 후 아직 개인 정보를 지우지 않은 회원의 ID 를 ID 순으로 조회한다.
+    @Query("SELECT m.memberId FROM Member m WHERE m.memberStatus = :memberStatus AND m.purgedAt IS NULL " +
+            "ORDER BY m.memberId")
+    List<Long> findUnpurgedMemberIds(Member.MemberStatus memberStatus, Pageable pageable);
+
+    long countByMemberStatusAndPurgedAtIsNull(Member.MemberStatus memberStatus);
+
+    @Modifying
+    @Query("DELETE FROM Stamp s WHERE s.member.memberId IN :memberIds")
+    int deleteStampsByMemberIdIn(Collection<Long> memberIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM member_roles WHERE member_member_id IN (:memberIds)", nativeQuery = true)
+    int deleteRolesByMemberIdIn(Collection<Long> memberIds);
+
+    /*
+     탈퇴한 회원의 개인 정보를 지웁니다. 주문 이력과 매출 집계가 회원을 참조하므로 행은 남기고,
+     이메일과 휴대폰 번호는 다른 회원이 다시 사용할 수 있도록 회원 ID 로 만든 값으로 바꿉니다.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE member SET email = CONCAT('quit-', member_id, '@deleted.invalid'), " +
+            "phone = CONCAT('Q', member_id), name = '', password = '', purged_at = :purgedAt " +
+            "WHERE member_id IN (:memberIds) AND member_status = 'MEMBER_QUIT' AND purged_at IS NULL",
+            nativeQuery = true)
+    int anonymizeQuitMembers(Collection<Long> memberIds, LocalDateTime purgedAt);
+
+    interface MemberVersion {
+        LocalDateTime getMemberModifiedAt();
+        LocalDateTime getStampModifiedAt();
+    }
 }
@@ -0,0 +1,150 @@
+package com.springboot.member.service;
+
+import com.springboot.auth.jwt.TokenRevocations;
+import com.springboot.job.entity.JobCheckpoint;
+import com.springboot.job.repository.JobCheckpointRepository;
+import com.springboot.member.entity.Member;
+import com.springboot.member.repository.MemberRepository;
+import com.springboot.metrics.MetricsSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ inactive-days 동안 주문이 없는 활동 회원을 휴면 상태(MEMBER_SLEEP)로 바꿉니다.
+
+ - 회원은 ID 순으로 chunk-size 명씩 별도 트랜잭션에서 바꾸므로 오래 잠기는 행이 없고,
+   청크 사이에 throttle-millis 만큼 쉬어서 다른 요청의 DB 사용을 방해하지 않습니다.
+ - 청크를 바꾼 트랜잭션에서 마지막으로 처리한 회원 ID 를 JobCheckpoint 에 함께 저장하므로,
+   작업 도중 서버가 재시작되면 다음 실행은 그 다음 회원부터 이어서 처리합니다.
+ - 휴면 회원이 이미 발급받은 토큰은 청크가 커밋된 뒤 TokenRevocations 로 무효화합니다.
+ */
+@Slf4j
+@Component
+public class MemberDormancySweeper implements MetricsSource {
+    static final String JOB_NAME = "member-dormancy";
+
+    private final MemberRepository memberRepository;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final TokenRevocations tokenRevocations;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int inactiveDays;
+    private final int chunkSize;
+    private final long throttleMillis;
+
+    private final LongAdder sleptCount = new LongAdder();
+    private final LongAdder chunkCount = new LongAdder();
+
+    public MemberDormancySweeper(MemberRepository memberRepository,
+                                 JobCheckpointRepository jobCheckpointRepository,
+                                 TokenRevocations tokenRevocations,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${member.dormancy.enabled:true}") boolean enabled,
+                                 @Value("${member.dormancy.inactive-days:365}") int inactiveDays,
+                                 @Value("${member.dormancy.chunk-size:200}") int chunkSize,
+                                 @Value("${member.dormancy.throttle-millis:200}") long throttleMillis) {
+        this.memberRepository = memberRepository;
+        this.jobCheckpointRepository = jobCheckpointRepository;
+        this.tokenRevocations = tokenRevocations;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.inactiveDays = inactiveDays;
+        this.chunkSize = chunkSize;
+        this.throttleMillis = throttleMillis;
+    }
+
+    @Scheduled(cron = "${member.dormancy.cron:0 0 4 * * *}")
+    public void sweepInactiveMembers() {
+        if (!enabled) {
+            return;
+        }
+        tokenRevocations.removeExpired();
+        int slept = sleepInactiveMembers(LocalDateTime.now().minusDays(inactiveDays));
+        if (slept > 0) {
+            log.info("# changed {} inactive members to sleep", slept);
+        }
+    }
+
+    /*
+     inactiveSince 이후로 주문이 없는 활동 회원을 모두 휴면 상태로 바꾸고, 바꾼 회원 수를 반환합니다.
+     끝까지 처리하면 체크포인트를 처음으로 되돌리고, 중간에 인터럽트되면 체크포인트를 남겨 둡니다.
+     */
+    public int sleepInactiveMembers(LocalDateTime inactiveSince) {
+        long lastMemberId = jobCheckpointRepository.findById(JOB_NAME)
+                .map(JobCheckpoint::getLastPosition)
+                .orElse(0L);
+        int slept = 0;
+
+        List<Long> memberIds;
+        do {
+            memberIds = memberRepository.findInactiveMemberIds(lastMemberId, Member.MemberStatus.MEMBER_ACTIVE,
+                    inactiveSince, PageRequest.of(0, chunkSize));
+            if (memberIds.isEmpty()) {
+                break;
+            }
+            List<Long> chunk = memberIds;
+            List<String> emails = transactionTemplate.execute(status -> sleepChunk(chunk, inactiveSince));
+            emails.forEach(tokenRevocations::revoke);
+            slept += emails.size();
+            lastMemberId = memberIds.get(memberIds.size() - 1);
+        } while (memberIds.size() == chunkSize && pause());
+
+        if (Thread.currentThread().isInterrupted()) {
+            return slept;
+        }
+        transactionTemplate.executeWithoutResult(status -> saveCheckpoint(0L));
+        return slept;
+    }
+
+    @Override
+    public Map<String, Number> getMetrics() {
+        Map<String, Number> metrics = new TreeMap<>();
+        metrics.put("member.dormancy.slept", sleptCount.sum());
+        metrics.put("member.dormancy.chunks", chunkCount.sum());
+        return metrics;
+    }
+
+    // 조회한 회원을 휴면 상태로 바꾸고 체크포인트를 저장한 뒤, 휴면 상태가 된 회원의 이메일을 반환합니다.
+    private List<String> sleepChunk(List<Long> memberIds, LocalDateTime inactiveSince) {
+        int updated = memberRepository.updateInactiveMemberStatuses(memberIds, Member.MemberStatus.MEMBER_ACTIVE,
+                Member.MemberStatus.MEMBER_SLEEP, inactiveSince, LocalDateTime.now());
+        saveCheckpoint(memberIds.get(memberIds.size() - 1));
+
+        sleptCount.add(updated);
+        chunkCount.increment();
+        return updated == 0 ? List.of() :
+                memberRepository.findEmailsByMemberIdInAndMemberStatus(memberIds, Member.MemberStatus.MEMBER_SLEEP);
+    }
+
+    private void saveCheckpoint(long lastMemberId) {
+        JobCheckpoint checkpoint = jobCheckpointRepository.findById(JOB_NAME)
+                .orElseGet(() -> new JobCheckpoint(JOB_NAME));
+        checkpoint.setLastPosition(lastMemberId);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        jobCheckpointRepository.save(checkpoint);
+    }
+
+    private boolean pause() {
+        if (throttleMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(throttleMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.springboot.member.service;
 
 import com.springboot.auth.AuthorityUtils;
+import com.springboot.auth.jwt.TokenRevocations;
 import com.springboot.exception.BusinessLogicException;
 import com.springboot.exception.ExceptionCode;
 import com.springboot.helper.event.MemberRegistrationApplicationEvent;
 import com.springboot.member.entity.Member;
 import com.springboot.member.repository.MemberRepository;
+import com.springboot.metrics.SingleFlightRegistry;
+import com.springboot.utils.SingleFlight;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -16,9 +19,18 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  *  - 메서드 구현
@@ -33,17 +45,24 @@ public class MemberService {
     private final MemberRepository memberRepository;
     private final ApplicationEventPublisher publisher;
     private final AuthorityUtils authorityUtils;
+    private final TokenRevocations tokenRevocations;
 
     //1. 사용자 등록 시, 패스워드와 권한 정보가 함께 db에 저장되도록 해줘야 합니다. 따라서 passwordEncoder, authorityUtils 를 di 받도록 필드를 추가하였습니다.
     private final PasswordEncoder passwordEncoder;
 
+    // 같은 회원을 동시에 조회하면 DB 조회는 한 번만 실행한다.
+    private final SingleFlight<Long, Member> memberLoads;
+
 
     //2. 생성자 DI 용 파라미터 추가
-    public MemberService(MemberRepository memberRepository, ApplicationEventPublisher publisher, AuthorityUtils authorityUtils, PasswordEncoder passwordEncoder ) {
+    public MemberService(MemberRepository memberRepository, ApplicationEventPublisher publisher, AuthorityUtils authorityUtils, PasswordEncoder passwordEncoder,
+                         SingleFlightRegistry singleFlightRegistry, TokenRevocations tokenRevocations) {
         this.memberRepository = memberRepository;
         this.publisher = publisher;
         this.authorityUtils = authorityUtils;
+        this.tokenRevocations = tokenRevocations;
         this.passwordEncoder = passwordEncoder;
+        this.memberLoads = singleFlightRegistry.create("member.findMember");
 
     }
 
@@ -72,37 +91,112 @@ public class MemberService {
         Optional.ofNullable(member.getPhone())
                 .ifPresent(phone -> findMember.setPhone(phone));
         Optional.ofNullable(member.getMemberStatus())
-                .ifPresent(memberStatus -> findMember.setMemberStatus(memberStatus));
+                .ifPresent(memberStatus -> findMember.setMemberStatus(verifyMemberStatus(memberStatus)));
 
         return memberRepository.save(findMember);
     }
 
-    @Transactional(readOnly = true)
+    /*
+     조회 전용 메서드입니다. 동시에 들어온 같은 회원 조회는 하나로 합쳐지고 결과 객체를 공유하므로,
+     반환된 Member 를 변경해야 하는 곳에서는 findVerifiedMember() 를 사용해야 합니다.
+     기다리는 요청이 커넥션을 잡고 있지 않도록 트랜잭션은 새로 시작하지 않습니다.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Member findMember(long memberId) {
-        return findVerifiedMember(memberId);
+        return memberLoads.load(memberId, () -> findVerifiedMember(memberId));
+    }
+
+    /*
+     회원 조회 응답의 버전 값을 반환합니다. 응답에는 스탬프 개수도 포함되므로 회원과 스탬프의 수정 시각을 함께 사용합니다.
+     회원이 없으면 null 을 반환합니다.
+     */
+    @Transactional(readOnly = true)
+    public String findMemberVersion(long memberId) {
+        return memberRepository.findVersionByMemberIdAndMemberStatusNot(memberId, Member.MemberStatus.MEMBER_QUIT)
+                .map(version -> toVersionToken(version.getMemberModifiedAt()) + "-" +
+                        toVersionToken(version.getStampModifiedAt()))
+                .orElse(null);
     }
 
+    @Transactional(readOnly = true)
     public Page<Member> findMembers(int page, int size) {
-        return memberRepository.findAll(PageRequest.of(page, size,
+        return memberRepository.findAllByMemberStatusNot(Member.MemberStatus.MEMBER_QUIT, PageRequest.of(page, size,
                 Sort.by("memberId").descending()));
     }
 
+    // 여러 회원을 한 번의 쿼리로 조회합니다. 반환되는 Map 은 요청한 ID 순서를 따르며, 찾지 못한 ID 는 포함하지 않습니다.
+    @Transactional(readOnly = true)
+    public Map<Long, Member> findMembers(Collection<Long> memberIds) {
+        Map<Long, Member> membersById = memberRepository.findAllWithStampByMemberIdIn(memberIds).stream()
+                .filter(member -> member.getMemberStatus() != Member.MemberStatus.MEMBER_QUIT)
+                .collect(Collectors.toMap(Member::getMemberId, Function.identity()));
+
+        Map<Long, Member> findMembers = new LinkedHashMap<>();
+        for (Long memberId : memberIds) {
+            Member member = membersById.get(memberId);
+            if (member != null) {
+                findMembers.put(memberId, member);
+            }
+        }
+        return findMembers;
+    }
+
+    /*
+     회원을 바로 지우지 않고 탈퇴 상태로만 바꿉니다. 탈퇴한 회원은 모든 조회에서 제외되며,
+     개인 정보와 스탬프는 SoftDeletePurger 가 나중에 정리합니다.
+     이미 발급된 토큰은 탈퇴가 커밋된 뒤부터 사용할 수 없습니다. 롤백되면 토큰도 그대로 사용할 수 있습니다.
+     */
     public void deleteMember(long memberId) {
         Member findMember = findVerifiedMember(memberId);
 
-        memberRepository.delete(findMember);
+        findMember.setMemberStatus(Member.MemberStatus.MEMBER_QUIT);
+        memberRepository.save(findMember);
+
+        String email = findMember.getEmail();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                tokenRevocations.revoke(email);
+            }
+        });
     }
 
+    // 스탬프까지 로딩해서 반환하므로 findMember() 처럼 트랜잭션 밖에서 공유되는 회원도 스탬프를 읽을 수 있다.
     @Transactional(readOnly = true)
     public Member findVerifiedMember(long memberId) {
         Optional<Member> optionalMember =
-                memberRepository.findById(memberId);
+                memberRepository.findWithStampByMemberId(memberId)
+                        .filter(member -> member.getMemberStatus() != Member.MemberStatus.MEMBER_QUIT);
         Member findMember =
                 optionalMember.orElseThrow(() ->
                         new BusinessLogicException(ExceptionCode.MEMBER_NOT_FOUND));
         return findMember;
     }
 
+    // 엔티티를 로딩하지 않고 회원이 존재하는지만 확인한다.
+    @Transactional(readOnly = true)
+    public void verifyExistsMember(long memberId) {
+        if (!memberRepository.existsByMemberIdAndMemberStatusNot(memberId, Member.MemberStatus.MEMBER_QUIT)) {
+            throw new BusinessLogicException(ExceptionCode.MEMBER_NOT_FOUND);
+        }
+    }
+
+    private String toVersionToken(LocalDateTime modifiedAt) {
+        if (modifiedAt == null) {
+            return "0";
+        }
+        long epochMicros = modifiedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + modifiedAt.getNano() / 1_000;
+        return Long.toHexString(epochMicros);
+    }
+
+    // 탈퇴는 회원 삭제 요청으로만 할 수 있다.
+    private Member.MemberStatus verifyMemberStatus(Member.MemberStatus memberStatus) {
+        if (memberStatus == Member.MemberStatus.MEMBER_QUIT) {
+            throw new BusinessLogicException(ExceptionCode.INVALID_MEMBER_STATUS);
+        }
+        return memberStatus;
+    }
+
     private void verifyExistsEmail(String email) {
         Optional<Member> member = memberRepository.findByEmail(email);
         if (member.isPresent())
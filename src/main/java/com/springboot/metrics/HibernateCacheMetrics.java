@@ -0,0 +1,53 @@
+package com.springboot.metrics;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Hibernate 2차 캐시와 쿼리 캐시의 영역별 적중/누락/저장 횟수를 메트릭으로 노출합니다.
+@Component
+public class HibernateCacheMetrics implements MetricsSource {
+    private final Statistics statistics;
+
+    public HibernateCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public Map<String, Number> getMetrics() {
+        Map<String, Number> metrics = new TreeMap<>();
+        if (!statistics.isStatisticsEnabled()) {
+            return metrics;
+        }
+
+        metrics.put("hibernate.cache.hit", statistics.getSecondLevelCacheHitCount());
+        metrics.put("hibernate.cache.miss", statistics.getSecondLevelCacheMissCount());
+        metrics.put("hibernate.cache.put", statistics.getSecondLevelCachePutCount());
+        metrics.put("hibernate.query_cache.hit", statistics.getQueryCacheHitCount());
+        metrics.put("hibernate.query_cache.miss", statistics.getQueryCacheMissCount());
+        metrics.put("hibernate.query_cache.put", statistics.getQueryCachePutCount());
+
+        // 엔티티, 컬렉션 영역과 한 번 이상 사용된 쿼리 캐시 영역이 포함된다.
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(regionName);
+            if (regionStatistics != null) {
+                putRegionMetrics(metrics, regionName, regionStatistics);
+            }
+        }
+        return metrics;
+    }
+
+    private void putRegionMetrics(Map<String, Number> metrics, String regionName,
+                                  CacheRegionStatistics regionStatistics) {
+        String prefix = "hibernate.cache.region." + regionName;
+        metrics.put(prefix + ".hit", regionStatistics.getHitCount());
+        metrics.put(prefix + ".miss", regionStatistics.getMissCount());
+        metrics.put(prefix + ".put", regionStatistics.getPutCount());
+        metrics.put(prefix + ".size", regionStatistics.getElementCountInMemory());
+    }
+}
@@ -0,0 +1,109 @@
+package com.springboot.metrics;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ 지연 시간, 배치 크기 같은 값의 분포를 기록하는 히스토그램입니다.
+ 값의 크기를 2 의 거듭제곱 구간으로 나누고, 각 구간을 다시 8 개로 나눈 버킷에 개수만 센다. (오차 12.5% 이내)
+ 버킷 배열의 크기가 고정되어 있고 기록은 원자적 증가 연산뿐이라서, 여러 스레드가 락 없이 기록할 수 있습니다.
+ */
+public class LogHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    // 음수는 0 으로 기록한다.
+    public void record(long value) {
+        long recordedValue = Math.max(value, 0);
+        counts.incrementAndGet(bucketIndex(recordedValue));
+        count.increment();
+        sum.add(recordedValue);
+        max.accumulate(recordedValue);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long totalCount = getCount();
+        return totalCount == 0 ? 0 : (double) getSum() / totalCount;
+    }
+
+    // 기록된 값 중 percentile(0 ~ 100) 위치의 값을 버킷의 상한으로 반환한다.
+    public long getValueAtPercentile(double percentile) {
+        long totalCount = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            totalCount += counts.get(i);
+        }
+        if (totalCount == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    // value 이하로 기록된 값의 개수를 반환한다. value 가 버킷 중간에 있으면 그 버킷은 포함하지 않는다.
+    public long getCountAtOrBelow(long value) {
+        long countAtOrBelow = 0;
+        for (int i = 0; i < BUCKET_COUNT && bucketUpperBound(i) <= value; i++) {
+            countAtOrBelow += counts.get(i);
+        }
+        return countAtOrBelow;
+    }
+
+    // prefix.count, prefix.mean, prefix.p50, prefix.p90, prefix.p99, prefix.max 값을 metrics 에 담는다.
+    public void putMetrics(String prefix, Map<String, Number> metrics) {
+        metrics.put(prefix + ".count", getCount());
+        metrics.put(prefix + ".mean", getMean());
+        metrics.put(prefix + ".p50", getValueAtPercentile(50));
+        metrics.put(prefix + ".p90", getValueAtPercentile(90));
+        metrics.put(prefix + ".p99", getValueAtPercentile(99));
+        metrics.put(prefix + ".max", getMax());
+    }
+
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    // 버킷에 들어가는 가장 큰 값
+    private static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKET_COUNT;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        long lowerBound = (long) (SUB_BUCKET_COUNT + subBucket) << (exponent - SUB_BUCKET_BITS);
+        return lowerBound + width - 1;
+    }
+}
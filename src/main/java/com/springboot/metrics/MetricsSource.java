@@ -0,0 +1,9 @@
+package com.springboot.metrics;
+
+import java.util.Map;
+
+// 관리자용 메트릭 엔드포인트(/v11/admin/metrics)에 노출할 값을 제공하는 컴포넌트가 구현합니다.
+public interface MetricsSource {
+    // 메트릭 이름과 현재 값을 반환합니다.
+    Map<String, Number> getMetrics();
+}
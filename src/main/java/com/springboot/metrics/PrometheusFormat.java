@@ -0,0 +1,41 @@
+package com.springboot.metrics;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+// Prometheus 텍스트 형식(text/plain; version=0.0.4)으로 메트릭을 쓸 때 사용하는 도구입니다.
+public final class PrometheusFormat {
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private PrometheusFormat() {
+    }
+
+    // MetricsSource 의 값을 gauge 로 쓴다. 메트릭 이름의 '.' 같은 문자는 '_' 로 바꾼다.
+    public static void writeGauges(StringBuilder out, Map<String, Number> metrics) {
+        metrics.forEach((name, value) -> {
+            String metricName = sanitizeMetricName(name);
+            out.append("# TYPE ").append(metricName).append(" gauge\n");
+            out.append(metricName).append(' ').append(value).append('\n');
+        });
+    }
+
+    public static String sanitizeMetricName(String name) {
+        StringBuilder metricName = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            boolean valid = c == '_' || c == ':' || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') ||
+                    (i > 0 && c >= '0' && c <= '9');
+            metricName.append(valid ? c : '_');
+        }
+        return metricName.toString();
+    }
+
+    public static String escapeLabelValue(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    // 마이크로초를 초 단위 문자열로 바꾼다. (예: 2500 -> 0.0025)
+    public static String formatSeconds(long micros) {
+        return BigDecimal.valueOf(micros, 6).stripTrailingZeros().toPlainString();
+    }
+}
@@ -0,0 +1,99 @@
+package com.springboot.metrics;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+
+/*
+ 요청의 처리 시간을 RouteLatencyRecorder 에 기록합니다.
+ 로그인과 JWT 검증 시간도 포함하도록 SecurityConfiguration 에서 인증 필터보다 앞에 등록합니다.
+ 경로는 요청을 처리한 컨트롤러의 경로 패턴을 사용하고, 컨트롤러 대신 필터가 처리하는 경로(로그인)는 그 경로를 사용합니다.
+ 주문 등록, 주문 내보내기처럼 비동기로 응답하는 요청은 응답이 끝났을 때 기록합니다.
+ */
+public class RouteLatencyFilter extends OncePerRequestFilter {
+    private final RouteLatencyRecorder routeLatencyRecorder;
+    private final List<String> filterRoutes;
+
+    public RouteLatencyFilter(RouteLatencyRecorder routeLatencyRecorder, String... filterRoutes) {
+        this.routeLatencyRecorder = routeLatencyRecorder;
+        this.filterRoutes = List.of(filterRoutes);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long startedAt = System.nanoTime();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            if (!completed) {
+                // 처리되지 않은 예외는 서블릿 컨테이너가 500 으로 응답한다.
+                record(request, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, startedAt);
+            } else if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new RecordingAsyncListener(request, response, startedAt));
+            } else {
+                record(request, response.getStatus(), startedAt);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, int status, long startedAt) {
+        routeLatencyRecorder.record(HttpMethod.resolve(request.getMethod()), findRoute(request), status,
+                (System.nanoTime() - startedAt) / 1_000);
+    }
+
+    private String findRoute(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null) {
+            return pattern.toString();
+        }
+        String requestUri = request.getRequestURI();
+        for (String filterRoute : filterRoutes) {
+            if (filterRoute.equals(requestUri)) {
+                return filterRoute;
+            }
+        }
+        return RouteLatencyRecorder.UNMATCHED_ROUTE;
+    }
+
+    // 비동기 응답은 시간 초과나 오류가 나도 마지막에 onComplete 가 호출된다.
+    private class RecordingAsyncListener implements AsyncListener {
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final long startedAt;
+
+        private RecordingAsyncListener(HttpServletRequest request, HttpServletResponse response, long startedAt) {
+            this.request = request;
+            this.response = response;
+            this.startedAt = startedAt;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            record(request, response.getStatus(), startedAt);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
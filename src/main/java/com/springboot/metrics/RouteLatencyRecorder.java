@@ -0,0 +1,96 @@
+package com.springboot.metrics;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+ 요청의 처리 시간을 (HTTP 메서드, 경로 패턴, 상태 코드 분류) 별 LogHistogram 에 기록합니다.
+ 경로는 /v11/orders/{order-id} 같은 패턴이므로 경로 변수 값이 달라도 같은 히스토그램에 기록됩니다.
+ 히스토그램은 처음 사용될 때 CAS 로 한 번만 만들어지며, 그 이후의 기록은 락과 객체 생성 없이 원자적 증가 연산만 사용합니다.
+ */
+@Component
+public class RouteLatencyRecorder {
+    // 컨트롤러까지 가지 않은 요청(인증 실패 등)의 경로
+    public static final String UNMATCHED_ROUTE = "UNMATCHED";
+
+    private static final HttpMethod[] METHODS = HttpMethod.values();
+    private static final int STATUS_CLASS_COUNT = 5;
+    // Prometheus 히스토그램의 버킷 경계 (마이크로초)
+    private static final long[] BUCKET_MICROS = {
+            1_000, 2_500, 5_000, 10_000, 25_000, 50_000, 100_000, 250_000, 500_000,
+            1_000_000, 2_500_000, 5_000_000, 10_000_000
+    };
+    private static final String METRIC_NAME = "http_server_requests_seconds";
+
+    private final ConcurrentMap<String, AtomicReferenceArray<LogHistogram>> histogramsByRoute =
+            new ConcurrentHashMap<>();
+
+    // method 가 null 이면 알 수 없는 메서드로 기록한다.
+    public void record(HttpMethod method, String route, int status, long elapsedMicros) {
+        AtomicReferenceArray<LogHistogram> histograms = histogramsByRoute.get(route);
+        if (histograms == null) {
+            histograms = histogramsByRoute.computeIfAbsent(route,
+                    key -> new AtomicReferenceArray<>((METHODS.length + 1) * STATUS_CLASS_COUNT));
+        }
+
+        int index = methodIndex(method) * STATUS_CLASS_COUNT + statusClassIndex(status);
+        LogHistogram histogram = histograms.get(index);
+        if (histogram == null) {
+            histograms.compareAndSet(index, null, new LogHistogram());
+            histogram = histograms.get(index);
+        }
+        histogram.record(elapsedMicros);
+    }
+
+    // 기록된 히스토그램을 Prometheus 텍스트 형식으로 out 에 쓴다.
+    public void writePrometheus(StringBuilder out) {
+        out.append("# HELP ").append(METRIC_NAME).append(" HTTP request latency by method, route and status class\n");
+        out.append("# TYPE ").append(METRIC_NAME).append(" histogram\n");
+
+        Map<String, AtomicReferenceArray<LogHistogram>> sortedHistograms = new TreeMap<>(histogramsByRoute);
+        sortedHistograms.forEach((route, histograms) -> {
+            for (int index = 0; index < histograms.length(); index++) {
+                LogHistogram histogram = histograms.get(index);
+                if (histogram != null) {
+                    String labels = "method=\"" + methodName(index / STATUS_CLASS_COUNT) + "\"," +
+                            "route=\"" + PrometheusFormat.escapeLabelValue(route) + "\"," +
+                            "status=\"" + (index % STATUS_CLASS_COUNT + 1) + "xx\"";
+                    writeHistogram(out, labels, histogram);
+                }
+            }
+        });
+    }
+
+    private static void writeHistogram(StringBuilder out, String labels, LogHistogram histogram) {
+        long count = histogram.getCount();
+        for (long bucketMicros : BUCKET_MICROS) {
+            out.append(METRIC_NAME).append("_bucket{").append(labels)
+                    .append(",le=\"").append(PrometheusFormat.formatSeconds(bucketMicros)).append("\"} ")
+                    .append(Math.min(histogram.getCountAtOrBelow(bucketMicros), count)).append('\n');
+        }
+        out.append(METRIC_NAME).append("_bucket{").append(labels).append(",le=\"+Inf\"} ").append(count).append('\n');
+        out.append(METRIC_NAME).append("_sum{").append(labels).append("} ")
+                .append(PrometheusFormat.formatSeconds(histogram.getSum())).append('\n');
+        out.append(METRIC_NAME).append("_count{").append(labels).append("} ").append(count).append('\n');
+    }
+
+    private static int methodIndex(HttpMethod method) {
+        return method == null ? METHODS.length : method.ordinal();
+    }
+
+    private static String methodName(int methodIndex) {
+        return methodIndex == METHODS.length ? "OTHER" : METHODS[methodIndex].name();
+    }
+
+    // 1xx ~ 5xx 를 0 ~ 4 로 바꾼다. 범위를 벗어난 상태 코드는 5xx 로 기록한다.
+    private static int statusClassIndex(int status) {
+        int statusClass = status / 100;
+        return statusClass >= 1 && statusClass <= STATUS_CLASS_COUNT ? statusClass - 1 : STATUS_CLASS_COUNT - 1;
+    }
+}
@@ -0,0 +1,31 @@
+package com.springboot.metrics;
+
+import com.springboot.utils.SingleFlight;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// 서비스에서 사용하는 SingleFlight 를 생성하고, 요청이 얼마나 합쳐졌는지 메트릭으로 노출합니다.
+@Component
+public class SingleFlightRegistry implements MetricsSource {
+    private final List<SingleFlight<?, ?>> singleFlights = new CopyOnWriteArrayList<>();
+
+    public <K, V> SingleFlight<K, V> create(String name) {
+        SingleFlight<K, V> singleFlight = new SingleFlight<>(name);
+        singleFlights.add(singleFlight);
+        return singleFlight;
+    }
+
+    @Override
+    public Map<String, Number> getMetrics() {
+        Map<String, Number> metrics = new TreeMap<>();
+        for (SingleFlight<?, ?> singleFlight : singleFlights) {
+            metrics.put("singleflight." + singleFlight.getName() + ".loads", singleFlight.getLoadCount());
+            metrics.put("singleflight." + singleFlight.getName() + ".coalesced", singleFlight.getCoalescedCount());
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,49 @@
+package com.springboot.metrics.controller;
+
+import com.springboot.dto.SingleResponseDto;
+import com.springboot.metrics.MetricsSource;
+import com.springboot.metrics.PrometheusFormat;
+import com.springboot.metrics.RouteLatencyRecorder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// 애플리케이션 내부 메트릭을 조회하는 관리자 전용 엔드포인트입니다.
+@RestController
+@RequestMapping("/v11/admin/metrics")
+public class MetricsController {
+    private final List<MetricsSource> metricsSources;
+    private final RouteLatencyRecorder routeLatencyRecorder;
+
+    public MetricsController(List<MetricsSource> metricsSources, RouteLatencyRecorder routeLatencyRecorder) {
+        this.metricsSources = metricsSources;
+        this.routeLatencyRecorder = routeLatencyRecorder;
+    }
+
+    @GetMapping
+    public ResponseEntity getMetrics() {
+        return new ResponseEntity<>(new SingleResponseDto<>(collectMetrics()), HttpStatus.OK);
+    }
+
+    // Prometheus 가 수집할 수 있도록 경로별 처리 시간 히스토그램과 위의 메트릭(gauge)을 텍스트 형식으로 응답한다.
+    @GetMapping(value = "/prometheus", produces = PrometheusFormat.CONTENT_TYPE)
+    public ResponseEntity getPrometheusMetrics() {
+        StringBuilder out = new StringBuilder();
+        routeLatencyRecorder.writePrometheus(out);
+        PrometheusFormat.writeGauges(out, collectMetrics());
+
+        return new ResponseEntity<>(out.toString(), HttpStatus.OK);
+    }
+
+    private Map<String, Number> collectMetrics() {
+        Map<String, Number> metrics = new TreeMap<>();
+        metricsSources.forEach(metricsSource -> metrics.putAll(metricsSource.getMetrics()));
+        return metrics;
+    }
+}
@@ -0,0 +1,47 @@
+package com.springboot.order.controller;
+
+import com.springboot.dto.CursorResponseDto;
+import com.springboot.order.dto.OrderCursor;
+import com.springboot.order.dto.OrderResponseDto;
+import com.springboot.order.entity.Order;
+import com.springboot.order.service.OrderService;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Positive;
+import java.util.List;
+
+// 회원별 주문 이력 조회
+@RestController
+@RequestMapping("/v11/members/{member-id}/orders")
+@Validated
+public class MemberOrderController {
+    private final OrderService orderService;
+
+    public MemberOrderController(OrderService orderService) {
+        this.orderService = orderService;
+    }
+
+    /*
+     응답의 nextCursor 를 다음 요청의 cursor 로 전달하면 다음 페이지를 조회한다.
+     페이지 번호(OFFSET) 대신 커서를 사용하므로 이력이 길어져도 뒤쪽 페이지의 조회 속도가 같다.
+     */
+    @GetMapping
+    public ResponseEntity getMemberOrders(@PathVariable("member-id") @Positive long memberId,
+                                          @RequestParam(required = false) Order.OrderStatus status,
+                                          @RequestParam(required = false) String cursor,
+                                          @Positive @Max(100) @RequestParam(defaultValue = "20") int size) {
+        Slice<OrderResponseDto> orders = orderService.findMemberOrderResponses(memberId, status, cursor, size);
+        List<OrderResponseDto> content = orders.getContent();
+        String nextCursor = orders.hasNext() ?
+                OrderCursor.of(content.get(content.size() - 1)).encode() : null;
+
+        return new ResponseEntity<>(
+                new CursorResponseDto<>(content, nextCursor),
+                HttpStatus.OK);
+    }
+}
@@ -2,23 +2,44 @@ package com.springboot.order.controller;
 
 import com.springboot.dto.MultiResponseDto;
 import com.springboot.dto.SingleResponseDto;
+import com.springboot.exception.BusinessLogicException;
+import com.springboot.exception.ExceptionCode;
 import com.springboot.member.service.MemberService;
+import com.springboot.order.dto.OrderBulkPatchDto;
+import com.springboot.order.dto.OrderBulkPatchResponseDto;
 import com.springboot.order.dto.OrderPatchDto;
 import com.springboot.order.dto.OrderPostDto;
+import com.springboot.order.dto.OrderResponseDto;
 import com.springboot.order.entity.Order;
 import com.springboot.order.mapper.OrderMapper;
+import com.springboot.order.service.OrderExportService;
+import com.springboot.order.service.OrderIdempotencyService;
+import com.springboot.order.service.OrderIngestionPipeline;
 import com.springboot.order.service.OrderService;
 import com.springboot.utils.UriCreator;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
 import java.net.URI;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 
 @RestController
@@ -26,59 +47,140 @@ import java.util.List;
 @Validated
 public class OrderController {
     private final static String ORDER_DEFAULT_URL = "/v11/orders";
+    private final static String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
     private final OrderService orderService;
     private final OrderMapper mapper;
     private final MemberService memberService;
+    private final OrderExportService orderExportService;
+    private final OrderIdempotencyService orderIdempotencyService;
+    private final OrderIngestionPipeline orderIngestionPipeline;
 
     public OrderController(OrderService orderService,
-                           OrderMapper mapper, MemberService memberService) {
+                           OrderMapper mapper, MemberService memberService,
+                           OrderExportService orderExportService,
+                           OrderIdempotencyService orderIdempotencyService,
+                           OrderIngestionPipeline orderIngestionPipeline) {
         this.orderService = orderService;
         this.mapper = mapper;
         this.memberService = memberService;
+        this.orderExportService = orderExportService;
+        this.orderIdempotencyService = orderIdempotencyService;
+        this.orderIngestionPipeline = orderIngestionPipeline;
     }
 
+    /*
+     Idempotency-Key 헤더가 있으면 같은 키로 재시도된 요청에 주문을 다시 만들지 않고
+     처음 생성된 주문의 Location 을 그대로 응답한다.
+     주문 수집 파이프라인(order.ingestion.enabled)이 켜져 있으면 멱등 키가 없는 주문은 다른 주문과 함께 저장되고,
+     저장된 배치가 커밋된 뒤에 응답한다. order.ingestion.response-timeout-millis 안에 저장되지 않으면
+     ORDER_QUEUE_FULL(503)로 응답하고, 아직 저장되지 않은 주문은 저장하지 않는다.
+     */
     @PostMapping
-    public ResponseEntity postOrder(@Valid @RequestBody OrderPostDto orderPostDto) {
-        Order order = orderService.createOrder(mapper.orderPostDtoToOrder(orderPostDto));
-        URI location = UriCreator.createUri(ORDER_DEFAULT_URL, order.getOrderId());
+    public DeferredResult<ResponseEntity> postOrder(@Size(max = 100) @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false)
+                                                    String idempotencyKey,
+                                                    @Valid @RequestBody OrderPostDto orderPostDto) {
+        Order order = mapper.orderPostDtoToOrder(orderPostDto);
+        if (idempotencyKey == null && orderIngestionPipeline.isEnabled()) {
+            DeferredResult<ResponseEntity> result =
+                    new DeferredResult<>(orderIngestionPipeline.getResponseTimeoutMillis());
+            CompletableFuture<Long> savedOrderId = orderIngestionPipeline.submit(order);
+            result.onTimeout(() ->
+                    savedOrderId.completeExceptionally(new BusinessLogicException(ExceptionCode.ORDER_QUEUE_FULL)));
+            savedOrderId.whenComplete((orderId, e) -> {
+                if (e == null) {
+                    result.setResult(createdOrderResponse(orderId));
+                } else {
+                    result.setErrorResult(e instanceof CompletionException ? e.getCause() : e);
+                }
+            });
+            return result;
+        }
 
-        return ResponseEntity.created(location).build();
+        DeferredResult<ResponseEntity> result = new DeferredResult<>();
+        long orderId = idempotencyKey == null ?
+                orderService.createOrder(order).getOrderId() :
+                orderIdempotencyService.createOrder(order, idempotencyKey);
+        result.setResult(createdOrderResponse(orderId));
+
+        return result;
     }
 
     @PatchMapping("/{order-id}")
     public ResponseEntity patchOrder(@PathVariable("order-id") @Positive long orderId,
                                      @Valid @RequestBody OrderPatchDto orderPatchDto) {
         orderPatchDto.setOrderId(orderId);
-        Order order =
+        OrderResponseDto orderResponse =
                 orderService.updateOrder(mapper.orderPatchDtoToOrder(orderPatchDto));
 
         return new ResponseEntity<>(
-                new SingleResponseDto<>(mapper.orderToOrderResponseDto(order))
+                new SingleResponseDto<>(orderResponse)
                 , HttpStatus.OK);
     }
+
+    // 특정 상태의 주문을 한 번에 변경한다. (예: 접수된 주문 일괄 확정)
+    @PatchMapping
+    public ResponseEntity patchOrders(@Valid @RequestBody OrderBulkPatchDto orderBulkPatchDto) {
+        int updatedCount = orderService.updateOrders(orderBulkPatchDto.getCurrentStatus(),
+                orderBulkPatchDto.getOrderStatus(), orderBulkPatchDto.getCreatedBefore());
+
+        return new ResponseEntity<>(
+                new SingleResponseDto<>(new OrderBulkPatchResponseDto(updatedCount)),
+                HttpStatus.OK);
+    }
+
     @GetMapping("/{order-id}")
     public ResponseEntity getOrder(@PathVariable("order-id") @Positive long orderId) {
-        Order order = orderService.findOrder(orderId);
+        OrderResponseDto orderResponse = orderService.findOrderResponse(orderId);
 
         return new ResponseEntity<>(
-                new SingleResponseDto<>(mapper.orderToOrderResponseDto(order)),
+                new SingleResponseDto<>(orderResponse),
                 HttpStatus.OK);
     }
 
     @GetMapping
     public ResponseEntity getOrders(@Positive @RequestParam int page,
                                     @Positive @RequestParam int size) {
-        Page<Order> pageOrders = orderService.findOrders(page - 1, size);
-        List<Order> orders = pageOrders.getContent();
+        Page<OrderResponseDto> pageOrders = orderService.findOrderResponses(page - 1, size);
+        List<OrderResponseDto> orders = pageOrders.getContent();
 
         return new ResponseEntity<>(
-                new MultiResponseDto<>(mapper.ordersToOrderResponseDtos(orders), pageOrders),
+                new MultiResponseDto<>(orders, pageOrders),
                 HttpStatus.OK);
     }
 
+    /*
+     전체 주문을 페이지 단위로 반복 조회하지 않고 한 번의 요청으로 내보낸다.
+     응답은 조회하는 동안 바로 쓰여지며, 기간(from ~ to, 날짜 포함)을 지정하지 않으면 오늘까지의 전체 주문을 내보낸다.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @Pattern(regexp = "(?i)ndjson|csv") @RequestParam(defaultValue = "ndjson") String format,
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @RequestParam(required = false) LocalDate from,
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @RequestParam(required = false) LocalDate to) {
+        OrderExportService.ExportFormat exportFormat =
+                OrderExportService.ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        LocalDateTime fromDateTime = Optional.ofNullable(from).orElse(LocalDate.EPOCH).atStartOfDay();
+        LocalDateTime toDateTime = Optional.ofNullable(to).orElse(LocalDate.now()).plusDays(1).atStartOfDay();
+
+        StreamingResponseBody body = outputStream ->
+                orderExportService.exportOrders(fromDateTime, toDateTime, exportFormat, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"orders." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
     @DeleteMapping("/{order-id}")
     public ResponseEntity cancelOrder(@PathVariable("order-id") @Positive long orderId) {
         orderService.cancelOrder(orderId);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
+
+    private ResponseEntity createdOrderResponse(long orderId) {
+        URI location = UriCreator.createUri(ORDER_DEFAULT_URL, orderId);
+
+        return ResponseEntity.created(location).build();
+    }
 }
@@ -0,0 +1,19 @@
+package com.springboot.order.dto;
+
+import com.springboot.order.entity.Order;
+import lombok.Getter;
+
+import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+@Getter
+public class OrderBulkPatchDto {
+    @NotNull
+    private Order.OrderStatus currentStatus;
+
+    @NotNull
+    private Order.OrderStatus orderStatus;
+
+    // 지정하면 이 시각 이전에 생성된 주문만 변경한다.
+    private LocalDateTime createdBefore;
+}
@@ -0,0 +1,10 @@
+package com.springboot.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class OrderBulkPatchResponseDto {
+    private int updatedCount;
+}
@@ -1,11 +1,17 @@
 package com.springboot.order.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 
 @Builder
+@AllArgsConstructor
 @Getter
 public class OrderCoffeeResponseDto {
+    // 주문별로 묶기 위한 값이므로 응답에는 포함하지 않는다.
+    @JsonIgnore
+    private long orderId;
     private long coffeeId;
     private Integer quantity;
     private String korName;
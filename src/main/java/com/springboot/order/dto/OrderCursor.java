@@ -0,0 +1,42 @@
+package com.springboot.order.dto;
+
+import com.springboot.exception.BusinessLogicException;
+import com.springboot.exception.ExceptionCode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/*
+ 회원 주문 이력의 다음 페이지 위치입니다. 마지막으로 응답한 주문의 (생성 시각, 주문 ID) 를 담습니다.
+ 클라이언트가 값을 해석하지 않도록 Base64(URL-safe) 문자열로 주고받습니다.
+ */
+@AllArgsConstructor
+@Getter
+public class OrderCursor {
+    private LocalDateTime createdAt;
+    private long orderId;
+
+    public static OrderCursor of(OrderResponseDto order) {
+        return new OrderCursor(order.getCreatedAt(), order.getOrderId());
+    }
+
+    public static OrderCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf('_');
+            return new OrderCursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new BusinessLogicException(ExceptionCode.INVALID_ORDER_CURSOR);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((createdAt + "_" + orderId).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,22 @@
+package com.springboot.order.dto;
+
+import com.springboot.order.entity.Order;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// 주문 내보내기에서 주문 커피 한 건을 한 행으로 읽어 오는 값입니다. 주문 커피가 없는 주문은 커피 값이 null 입니다.
+@AllArgsConstructor
+@Getter
+public class OrderExportRow {
+    private Long orderId;
+    private Long memberId;
+    private Order.OrderStatus orderStatus;
+    private LocalDateTime createdAt;
+    private Long coffeeId;
+    private Integer quantity;
+    private String korName;
+    private String engName;
+    private Integer price;
+}
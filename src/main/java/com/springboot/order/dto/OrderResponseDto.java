@@ -4,11 +4,13 @@ import com.springboot.member.entity.Member;
 import com.springboot.order.entity.Order;
 import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
+@NoArgsConstructor
 @Getter
 @Setter
 public class OrderResponseDto {
@@ -20,6 +22,15 @@ public class OrderResponseDto {
     private List<OrderCoffeeResponseDto> orderCoffees;
     private LocalDateTime createdAt;
 
+    // 주문 조회 쿼리(JPQL 생성자 표현식)에서 사용한다.
+    public OrderResponseDto(Long orderId, Long memberId, Order.OrderStatus orderStatus,
+                            LocalDateTime createdAt) {
+        this.orderId = orderId;
+        this.memberId = memberId;
+        this.orderStatus = orderStatus;
+        this.createdAt = createdAt;
+    }
+
     public void setMember(Member member) {
         this.memberId = member.getMemberId();
     }
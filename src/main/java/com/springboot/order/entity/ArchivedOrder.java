@@ -0,0 +1,38 @@
+package com.springboot.order.entity;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/*
+ 보관(archive) 테이블로 옮겨진 주문입니다. 완료되거나 취소된 지 오래된 주문은 OrderArchiver 가
+ ORDERS 에서 이 테이블로 옮기므로, ORDERS 에는 처리 중인 주문과 최근 주문만 남습니다.
+ 보관된 주문은 더 이상 바뀌지 않으므로 조회만 합니다.
+ */
+@NoArgsConstructor
+@Getter
+@Entity(name = "ORDERS_ARCHIVE")
+@Table(indexes = {
+        // 회원별 주문 이력 조회는 보관된 주문도 같은 순서로 읽는다.
+        @Index(name = "idx_orders_archive_member_created_at", columnList = "MEMBER_ID, created_at, orderId, orderStatus")
+})
+public class ArchivedOrder {
+    @Id
+    private Long orderId;
+
+    @Column(name = "MEMBER_ID")
+    private Long memberId;
+
+    @Enumerated(EnumType.STRING)
+    private Order.OrderStatus orderStatus;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "LAST_MODIFIED_AT")
+    private LocalDateTime modifiedAt;
+
+    private LocalDateTime archivedAt;
+}
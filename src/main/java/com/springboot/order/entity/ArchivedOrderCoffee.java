@@ -0,0 +1,33 @@
+package com.springboot.order.entity;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// 보관 테이블로 옮겨진 주문의 주문 커피입니다.
+@NoArgsConstructor
+@Getter
+@Entity
+@Table(name = "ORDER_COFFEE_ARCHIVE", indexes = {
+        @Index(name = "idx_order_coffee_archive_order_id", columnList = "ORDER_ID")
+})
+public class ArchivedOrderCoffee {
+    @Id
+    private Long orderCoffeeId;
+
+    @Column(name = "ORDER_ID")
+    private Long orderId;
+
+    @Column(name = "COFFEE_ID")
+    private Long coffeeId;
+
+    private int quantity;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "LAST_MODIFIED_AT")
+    private LocalDateTime modifiedAt;
+}
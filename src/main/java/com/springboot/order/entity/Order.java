@@ -8,12 +8,22 @@ import lombok.Setter;
 
 import javax.persistence.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @NoArgsConstructor
 @Getter
 @Setter
 @Entity(name = "ORDERS")
+@Table(indexes = {
+        // 회원별 주문 이력 조회(최신순 커서 페이징)가 인덱스만 읽고 끝나도록 조회 조건과 정렬 컬럼을 순서대로 둔다.
+        @Index(name = "idx_orders_member_created_at", columnList = "MEMBER_ID, created_at, orderId, orderStatus"),
+        // 보관 대상(완료/취소된 오래된 주문)을 찾을 때 사용한다.
+        @Index(name = "idx_orders_status_created_at", columnList = "orderStatus, created_at")
+})
 public class Order extends Auditable {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -33,11 +43,9 @@ public class Order extends Auditable {
         this.member = member;
     }
 
+    // 연관관계는 OrderCoffee.addOrder() 에서 관리한다.
     public void addOrderCoffee(OrderCoffee orderCoffee) {
-        this.orderCoffees.add(orderCoffee);
-        if (orderCoffee.getOrder() != this) {
-            orderCoffee.addOrder(this);
-        }
+        orderCoffee.addOrder(this);
     }
 
     public enum OrderStatus {
@@ -56,5 +64,16 @@ public class Order extends Auditable {
             this.stepNumber = stepNumber;
             this.stepDescription = stepDescription;
         }
+
+        /*
+         이 상태로 변경할 수 있는 현재 상태 목록입니다.
+         주문은 앞 단계에서 뒤 단계로만 진행되며, 주문 취소는 주문이 확정(step 2)되기 전에만 가능합니다.
+         */
+        public Set<OrderStatus> getPreviousStatuses() {
+            int maxStepNumber = this == ORDER_CANCEL ? ORDER_CONFIRM.stepNumber : stepNumber;
+            return Arrays.stream(values())
+                    .filter(orderStatus -> orderStatus != ORDER_CANCEL && orderStatus.stepNumber < maxStepNumber)
+                    .collect(Collectors.toCollection(() -> EnumSet.noneOf(OrderStatus.class)));
+        }
     }
-}
\ No newline at end of file
+}
@@ -5,6 +5,7 @@ import com.springboot.coffee.entity.Coffee;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.Hibernate;
 
 import javax.persistence.*;
 
@@ -12,6 +13,10 @@ import javax.persistence.*;
 @Getter
 @Setter
 @Entity
+@Table(indexes = {
+        // 주문 ID 로 주문 커피를 한 번에 조회할 때 사용한다.
+        @Index(name = "idx_order_coffee_order_id", columnList = "ORDER_ID")
+})
 public class OrderCoffee extends Auditable {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -28,17 +33,29 @@ public class OrderCoffee extends Auditable {
     @JoinColumn(name = "COFFEE_ID")
     private Coffee coffee;
 
+    /*
+     연관관계의 주인인 이 엔티티의 필드만 설정하면 외래 키가 저장됩니다.
+     반대쪽 컬렉션은 이미 로딩된 경우에만 함께 맞춰 줍니다. 로딩되지 않은 컬렉션에 contains() 를 호출하면
+     그 커피(주문)의 주문 커피 이력 전체가 조회되기 때문입니다. 로딩되지 않은 컬렉션은 나중에 로딩될 때
+     DB 에서 이 주문 커피까지 함께 읽습니다.
+     */
     public void addOrder(Order order) {
+        if (this.order == order) {
+            return;
+        }
         this.order = order;
-        if (!this.order.getOrderCoffees().contains(this)) {
-            this.order.getOrderCoffees().add(this);
+        if (Hibernate.isInitialized(order.getOrderCoffees())) {
+            order.getOrderCoffees().add(this);
         }
     }
 
     public void addCoffee(Coffee coffee) {
+        if (this.coffee == coffee) {
+            return;
+        }
         this.coffee = coffee;
-        if (!this.coffee.getOrderCoffees().contains(this)) {
-            this.coffee.addOrderCoffee(this);
+        if (Hibernate.isInitialized(coffee.getOrderCoffees())) {
+            coffee.getOrderCoffees().add(this);
         }
     }
 }
@@ -0,0 +1,38 @@
+package com.springboot.order.entity;
+
+import com.springboot.audit.Auditable;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+
+/*
+ 클라이언트가 Idempotency-Key 헤더로 보낸 주문 요청 키와 그 요청으로 생성된 주문 ID 를 저장합니다.
+ 키는 회원별로 유일하며, 주문과 같은 트랜잭션에서 저장되므로 주문 생성이 실패하면 키도 남지 않습니다.
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(uniqueConstraints = {
+        @UniqueConstraint(name = "uk_order_idempotency_key", columnNames = {"MEMBER_ID", "IDEMPOTENCY_KEY"})
+})
+public class OrderIdempotencyKey extends Auditable {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long orderIdempotencyKeyId;
+
+    @Column(name = "MEMBER_ID", nullable = false, updatable = false)
+    private Long memberId;
+
+    @Column(name = "IDEMPOTENCY_KEY", length = 100, nullable = false, updatable = false)
+    private String idempotencyKey;
+
+    private Long orderId;
+
+    public OrderIdempotencyKey(Long memberId, String idempotencyKey) {
+        this.memberId = memberId;
+        this.idempotencyKey = idempotencyKey;
+    }
+}
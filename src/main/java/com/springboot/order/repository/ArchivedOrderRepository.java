@@ -0,0 +1,83 @@
+package com.springboot.order.repository;
+
+import com.springboot.order.dto.OrderCoffeeResponseDto;
+import com.springboot.order.dto.OrderExportRow;
+import com.springboot.order.dto.OrderResponseDto;
+import com.springboot.order.entity.ArchivedOrder;
+import com.springboot.order.entity.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+// 보관된 주문 조회와 보관 테이블로의 이동을 담당합니다. 조회 쿼리는 OrderRepository 의 같은 이름 쿼리와 결과가 같습니다.
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+    @Query("SELECT new com.springboot.order.dto.OrderResponseDto(" +
+            "o.orderId, o.memberId, o.orderStatus, o.createdAt) FROM ORDERS_ARCHIVE o " +
+            "WHERE o.orderId = :orderId")
+    Optional<OrderResponseDto> findOrderResponseByOrderId(long orderId);
+
+    @Query("SELECT new com.springboot.order.dto.OrderResponseDto(" +
+            "o.orderId, o.memberId, o.orderStatus, o.createdAt) FROM ORDERS_ARCHIVE o " +
+            "WHERE o.memberId = :memberId AND o.orderStatus IN :orderStatuses " +
+            "ORDER BY o.createdAt DESC, o.orderId DESC")
+    Slice<OrderResponseDto> findMemberOrderResponses(long memberId,
+                                                     Collection<Order.OrderStatus> orderStatuses,
+                                                     Pageable pageable);
+
+    @Query("SELECT new com.springboot.order.dto.OrderResponseDto(" +
+            "o.orderId, o.memberId, o.orderStatus, o.createdAt) FROM ORDERS_ARCHIVE o " +
+            "WHERE o.memberId = :memberId AND o.orderStatus IN :orderStatuses " +
+            "AND o.createdAt <= :createdAt AND (o.createdAt < :createdAt OR o.orderId < :orderId) " +
+            "ORDER BY o.createdAt DESC, o.orderId DESC")
+    Slice<OrderResponseDto> findMemberOrderResponsesAfter(long memberId,
+                                                          Collection<Order.OrderStatus> orderStatuses,
+                                                          LocalDateTime createdAt, long orderId,
+                                                          Pageable pageable);
+
+    @Query("SELECT new com.springboot.order.dto.OrderCoffeeResponseDto(" +
+            "oc.orderId, c.coffeeId, oc.quantity, c.korName, c.engName, c.price) " +
+            "FROM ArchivedOrderCoffee oc JOIN Coffee c ON c.coffeeId = oc.coffeeId " +
+            "WHERE oc.orderId IN :orderIds ORDER BY oc.orderCoffeeId")
+    List<OrderCoffeeResponseDto> findOrderCoffeeResponsesByOrderIdIn(Collection<Long> orderIds);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("SELECT new com.springboot.order.dto.OrderExportRow(" +
+            "o.orderId, o.memberId, o.orderStatus, o.createdAt, " +
+            "c.coffeeId, oc.quantity, c.korName, c.engName, c.price) " +
+            "FROM ORDERS_ARCHIVE o LEFT JOIN ArchivedOrderCoffee oc ON oc.orderId = o.orderId " +
+            "LEFT JOIN Coffee c ON c.coffeeId = oc.coffeeId " +
+            "WHERE o.createdAt >= :from AND o.createdAt < :to " +
+            "ORDER BY o.orderId, oc.orderCoffeeId")
+    Stream<OrderExportRow> streamOrderExportRows(LocalDateTime from, LocalDateTime to);
+
+    // 주문을 보관 테이블로 복사합니다. 원본 삭제는 OrderRepository.deleteOrdersByOrderIdIn() 에서 합니다.
+    @Modifying
+    @Query(value = "INSERT INTO orders_archive " +
+            "(order_id, member_id, order_status, created_at, last_modified_at, archived_at) " +
+            "SELECT order_id, member_id, order_status, created_at, last_modified_at, :archivedAt " +
+            "FROM orders WHERE order_id IN (:orderIds)", nativeQuery = true)
+    int copyOrders(Collection<Long> orderIds, LocalDateTime archivedAt);
+
+    @Modifying
+    @Query(value = "INSERT INTO order_coffee_archive " +
+            "(order_coffee_id, order_id, coffee_id, quantity, created_at, last_modified_at) " +
+            "SELECT order_coffee_id, order_id, coffee_id, quantity, created_at, last_modified_at " +
+            "FROM order_coffee WHERE order_id IN (:orderIds)", nativeQuery = true)
+    int copyOrderCoffees(Collection<Long> orderIds);
+}
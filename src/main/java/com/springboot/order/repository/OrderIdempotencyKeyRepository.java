@@ -0,0 +1,13 @@
+package com.springboot.order.repository;
+
+import com.springboot.order.entity.OrderIdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
+
+public interface OrderIdempotencyKeyRepository extends JpaRepository<OrderIdempotencyKey, Long> {
+    @Query("SELECT k.orderId FROM OrderIdempotencyKey k " +
+            "WHERE k.memberId = :memberId AND k.idempotencyKey = :idempotencyKey")
+    Optional<Long> findOrderIdByMemberIdAndIdempotencyKey(long memberId, String idempotencyKey);
+}
@@ -1,7 +1,144 @@
 package com.springboot.order.repository;
 
+import com.springboot.order.dto.OrderCoffeeResponseDto;
+import com.springboot.order.dto.OrderExportRow;
+import com.springboot.order.dto.OrderResponseDto;
 import com.springboot.order.entity.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
+    /*
+     주문 조회 응답은 엔티티를 로딩하지 않고 DTO 로 바로 조회합니다.
+     엔티티로 조회하면 주문마다 회원(권한 목록 포함), 주문 커피, 커피가 각각 조회되기 때문입니다.
+     회원은 ID 만 필요하므로 조인하지 않고 외래 키 값을 그대로 사용합니다.
+     */
+    @Query(value = "SELECT new com.springboot.order.dto.OrderResponseDto(" +
+            "o.orderId, o.member.memberId, o.orderStatus, o.createdAt) FROM ORDERS o",
+            countQuery = "SELECT COUNT(o) FROM ORDERS o")
+    Page<OrderResponseDto> findOrderResponses(Pageable pageable);
+
+    @Query("SELECT new com.springboot.order.dto.OrderResponseDto(" +
+            "o.orderId, o.member.memberId, o.orderStatus, o.createdAt) FROM ORDERS o " +
+            "WHERE o.orderId = :orderId")
+    Optional<OrderResponseDto> findOrderResponseByOrderId(long orderId);
+
+    /*
+     회원의 주문 이력을 최신순으로 조회합니다. (MEMBER_ID, created_at, order_id) 인덱스를 순서대로 읽으므로
+     OFFSET 없이 마지막으로 읽은 위치 다음부터 size + 1 건만 읽습니다.
+     커서 조건의 created_at <= :createdAt 은 DB 가 인덱스 범위 검색에 사용할 수 있도록 따로 둔 조건입니다.
+     */
+    @Query("SELECT new com.springboot.order.dto.OrderResponseDto(" +
+            "o.orderId, o.member.memberId, o.orderStatus, o.createdAt) FROM ORDERS o " +
+            "WHERE o.member.memberId = :memberId AND o.orderStatus IN :orderStatuses " +
+            "ORDER BY o.createdAt DESC, o.orderId DESC")
+    Slice<OrderResponseDto> findMemberOrderResponses(long memberId,
+                                                     Collection<Order.OrderStatus> orderStatuses,
+                                                     Pageable pageable);
+
+    @Query("SELECT new com.springboot.order.dto.OrderResponseDto(" +
+            "o.orderId, o.member.memberId, o.orderStatus, o.createdAt) FROM ORDERS o " +
+            "WHERE o.member.memberId = :memberId AND o.orderStatus IN :orderStatuses " +
+            "AND o.createdAt <= :createdAt AND (o.createdAt < :createdAt OR o.orderId < :orderId) " +
+            "ORDER BY o.createdAt DESC, o.orderId DESC")
+    Slice<OrderResponseDto> findMemberOrderResponsesAfter(long memberId,
+                                                          Collection<Order.OrderStatus> orderStatuses,
+                                                          LocalDateTime createdAt, long orderId,
+                                                          Pageable pageable);
+
+    // 여러 주문의 주문 커피를 커피 정보와 함께 한 번에 조회한다.
+    @Query("SELECT new com.springboot.order.dto.OrderCoffeeResponseDto(" +
+            "oc.order.orderId, c.coffeeId, oc.quantity, c.korName, c.engName, c.price) " +
+            "FROM OrderCoffee oc JOIN oc.coffee c " +
+            "WHERE oc.order.orderId IN :orderIds ORDER BY oc.orderCoffeeId")
+    List<OrderCoffeeResponseDto> findOrderCoffeeResponsesByOrderIdIn(Collection<Long> orderIds);
+
+    /*
+     주문 내보내기용 조회입니다. 결과를 한 번에 메모리에 올리지 않고 커서로 fetch size 만큼씩 읽으며,
+     엔티티가 아닌 값으로 조회하므로 영속성 컨텍스트에도 쌓이지 않습니다.
+     반환된 Stream 은 트랜잭션 안에서 사용하고 사용 후 닫아야 합니다.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("SELECT new com.springboot.order.dto.OrderExportRow(" +
+            "o.orderId, o.member.memberId, o.orderStatus, o.createdAt, " +
+            "c.coffeeId, oc.quantity, c.korName, c.engName, c.price) " +
+            "FROM ORDERS o LEFT JOIN o.orderCoffees oc LEFT JOIN oc.coffee c " +
+            "WHERE o.createdAt >= :from AND o.createdAt < :to " +
+            "ORDER BY o.orderId, oc.orderCoffeeId")
+    Stream<OrderExportRow> streamOrderExportRows(LocalDateTime from, LocalDateTime to);
+
+    /*
+     주문 상태를 조회 없이 한 번의 UPDATE 로 변경합니다. 현재 상태가 previousStatuses 중 하나일 때만 변경되므로
+     상태를 확인하고 변경하는 사이에 다른 요청이 끼어들 수 없습니다. 변경된 행 수를 반환합니다.
+     벌크 연산은 Auditing 이 적용되지 않으므로 수정 시각을 직접 설정합니다.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ORDERS o SET o.orderStatus = :orderStatus, o.modifiedAt = :modifiedAt " +
+            "WHERE o.orderId = :orderId AND o.orderStatus IN :previousStatuses")
+    int updateOrderStatus(long orderId, Order.OrderStatus orderStatus,
+                          Collection<Order.OrderStatus> previousStatuses, LocalDateTime modifiedAt);
+
+    // currentStatus 상태인 주문(createdBefore 이전에 생성된)을 한 번의 UPDATE 로 모두 변경합니다.
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ORDERS o SET o.orderStatus = :orderStatus, o.modifiedAt = :modifiedAt " +
+            "WHERE o.orderStatus = :currentStatus AND o.createdAt < :createdBefore")
+    int updateOrderStatuses(Order.OrderStatus currentStatus, Order.OrderStatus orderStatus,
+                            LocalDateTime createdBefore, LocalDateTime modifiedAt);
+
+    /*
+     currentStatus 상태인 주문(createdBefore 이전에 생성된)의 ID 를 pageable 크기만큼 조회하면서 행을 잠급니다. (SELECT ... FOR UPDATE)
+     잠긴 주문은 이 트랜잭션이 끝날 때까지 다른 요청이 상태를 바꿀 수 없으므로, 조회한 주문만 정확히 변경할 수 있습니다.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o.orderId FROM ORDERS o " +
+            "WHERE o.orderStatus = :currentStatus AND o.createdAt < :createdBefore")
+    List<Long> findOrderIdsForUpdate(Order.OrderStatus currentStatus, LocalDateTime createdBefore,
+                                     Pageable pageable);
+
+    // 잠근 주문들의 상태를 한 번의 UPDATE 로 변경합니다.
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ORDERS o SET o.orderStatus = :orderStatus, o.modifiedAt = :modifiedAt " +
+            "WHERE o.orderId IN :orderIds AND o.orderStatus = :currentStatus")
+    int updateOrderStatusesByOrderIdIn(Collection<Long> orderIds, Order.OrderStatus currentStatus,
+                                       Order.OrderStatus orderStatus, LocalDateTime modifiedAt);
+
+    /*
+     보관 대상 주문(orderStatuses 상태이고 createdBefore 이전에 생성된)의 ID 를 최대 pageable 크기만큼 조회합니다.
+     정렬하지 않으므로 (order_status, created_at) 인덱스에서 필요한 만큼만 읽고 멈춥니다.
+     조회한 주문은 잠그므로 다른 서버의 OrderArchiver 가 같은 주문을 동시에 옮기지 않습니다.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o.orderId FROM ORDERS o " +
+            "WHERE o.orderStatus IN :orderStatuses AND o.createdAt < :createdBefore")
+    List<Long> findArchivableOrderIds(Collection<Order.OrderStatus> orderStatuses, LocalDateTime createdBefore,
+                                      Pageable pageable);
+
+    // 보관 테이블로 복사한 주문과 주문 커피를 삭제합니다.
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM OrderCoffee oc WHERE oc.order.orderId IN :orderIds")
+    int deleteOrderCoffeesByOrderIdIn(Collection<Long> orderIds);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM ORDERS o WHERE o.orderId IN :orderIds")
+    int deleteOrdersByOrderIdIn(Collection<Long> orderIds);
 }
@@ -0,0 +1,110 @@
+package com.springboot.order.service;
+
+import com.springboot.metrics.MetricsSource;
+import com.springboot.order.entity.Order;
+import com.springboot.order.repository.ArchivedOrderRepository;
+import com.springboot.order.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ 완료되거나 취소된 지 오래된 주문을 보관 테이블(ORDERS_ARCHIVE, ORDER_COFFEE_ARCHIVE)로 옮깁니다.
+ ORDERS 와 ORDER_COFFEE 에는 처리 중인 주문과 최근 주문만 남으므로, 주문이 계속 쌓여도
+ 자주 읽고 쓰는 테이블과 인덱스의 크기가 일정하게 유지됩니다.
+
+ - 주문은 chunk-size 건씩 별도 트랜잭션으로 옮기므로 한 번에 잠그는 행과 트랜잭션 크기가 제한됩니다.
+ - 한 트랜잭션 안에서 복사와 삭제가 함께 커밋되므로, 주문은 항상 두 테이블 중 한 곳에만 있습니다.
+ - 보관된 주문은 OrderService 의 조회에서 자동으로 함께 조회됩니다.
+ */
+@Slf4j
+@Component
+public class OrderArchiver implements MetricsSource {
+    private static final Set<Order.OrderStatus> ARCHIVABLE_STATUSES =
+            EnumSet.of(Order.OrderStatus.ORDER_COMPLETE, Order.OrderStatus.ORDER_CANCEL);
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int minAgeDays;
+    private final int chunkSize;
+
+    private final LongAdder archivedCount = new LongAdder();
+    private final LongAdder chunkCount = new LongAdder();
+
+    public OrderArchiver(OrderRepository orderRepository,
+                         ArchivedOrderRepository archivedOrderRepository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${order.archive.enabled:true}") boolean enabled,
+                         @Value("${order.archive.min-age-days:90}") int minAgeDays,
+                         @Value("${order.archive.chunk-size:500}") int chunkSize) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.minAgeDays = minAgeDays;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(fixedDelayString = "${order.archive.interval-millis:600000}",
+            initialDelayString = "${order.archive.interval-millis:600000}")
+    public void archiveOldOrders() {
+        if (!enabled) {
+            return;
+        }
+        int archived = archiveOrders(LocalDateTime.now().minusDays(minAgeDays));
+        if (archived > 0) {
+            log.info("# archived {} orders", archived);
+        }
+    }
+
+    // createdBefore 이전에 생성되어 완료/취소된 주문을 모두 보관 테이블로 옮기고, 옮긴 주문 수를 반환합니다.
+    public int archiveOrders(LocalDateTime createdBefore) {
+        int archived = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveChunk(createdBefore));
+            archived += moved;
+        } while (moved == chunkSize);
+
+        return archived;
+    }
+
+    @Override
+    public Map<String, Number> getMetrics() {
+        Map<String, Number> metrics = new TreeMap<>();
+        metrics.put("order.archive.archived", archivedCount.sum());
+        metrics.put("order.archive.chunks", chunkCount.sum());
+        return metrics;
+    }
+
+    private int archiveChunk(LocalDateTime createdBefore) {
+        List<Long> orderIds = orderRepository.findArchivableOrderIds(ARCHIVABLE_STATUSES, createdBefore,
+                PageRequest.of(0, chunkSize));
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+
+        archivedOrderRepository.copyOrders(orderIds, LocalDateTime.now());
+        archivedOrderRepository.copyOrderCoffees(orderIds);
+        orderRepository.deleteOrderCoffeesByOrderIdIn(orderIds);
+        orderRepository.deleteOrdersByOrderIdIn(orderIds);
+
+        archivedCount.add(orderIds.size());
+        chunkCount.increment();
+        return orderIds.size();
+    }
+}
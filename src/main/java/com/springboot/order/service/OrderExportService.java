@@ -0,0 +1,151 @@
+package com.springboot.order.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot.order.dto.OrderCoffeeResponseDto;
+import com.springboot.order.dto.OrderExportRow;
+import com.springboot.order.dto.OrderResponseDto;
+import com.springboot.order.repository.ArchivedOrderRepository;
+import com.springboot.order.repository.OrderRepository;
+import lombok.Getter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/*
+ 전체 주문을 NDJSON 또는 CSV 로 내보냅니다.
+ 조회 결과를 커서로 읽으면서 바로 응답에 쓰기 때문에, 주문 수와 상관없이 메모리에는 주문 한 건만 유지됩니다.
+ */
+@Transactional(readOnly = true)
+@Service
+public class OrderExportService {
+    private static final String CSV_HEADER =
+            "orderId,memberId,orderStatus,createdAt,coffeeId,korName,engName,quantity,price\n";
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ObjectMapper objectMapper;
+
+    public OrderExportService(OrderRepository orderRepository,
+                              ArchivedOrderRepository archivedOrderRepository,
+                              ObjectMapper objectMapper) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /*
+     from 이상, to 미만에 생성된 주문을 내보낸다.
+     보관된 주문을 주문 ID 순으로 먼저 내보내고, 이어서 주문 테이블의 주문을 주문 ID 순으로 내보낸다.
+     */
+    public void exportOrders(LocalDateTime from, LocalDateTime to, ExportFormat format,
+                             OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+        }
+        // 커서를 동시에 두 개 열지 않도록 보관된 주문을 다 쓴 뒤에 주문 테이블을 조회한다.
+        try (Stream<OrderExportRow> rows = archivedOrderRepository.streamOrderExportRows(from, to)) {
+            writeRows(rows.iterator(), format, writer);
+        }
+        try (Stream<OrderExportRow> rows = orderRepository.streamOrderExportRows(from, to)) {
+            writeRows(rows.iterator(), format, writer);
+        }
+        writer.flush();
+    }
+
+    private void writeRows(Iterator<OrderExportRow> rows, ExportFormat format, Writer writer) throws IOException {
+        if (format == ExportFormat.CSV) {
+            writeCsv(rows, writer);
+        } else {
+            writeNdjson(rows, writer);
+        }
+    }
+
+    // 주문 커피 한 건을 한 줄로 쓴다.
+    private void writeCsv(Iterator<OrderExportRow> rows, Writer writer) throws IOException {
+        while (rows.hasNext()) {
+            OrderExportRow row = rows.next();
+            writer.write(row.getOrderId() + "," + row.getMemberId() + "," + row.getOrderStatus() + "," +
+                    row.getCreatedAt() + "," + toCsvValue(row.getCoffeeId()) + "," +
+                    toCsvValue(row.getKorName()) + "," + toCsvValue(row.getEngName()) + "," +
+                    toCsvValue(row.getQuantity()) + "," + toCsvValue(row.getPrice()) + "\n");
+        }
+    }
+
+    // 주문 한 건을 한 줄로 쓴다. 행은 주문 ID 순으로 오므로 주문 ID 가 바뀔 때마다 이전 주문을 내보낸다.
+    private void writeNdjson(Iterator<OrderExportRow> rows, Writer writer) throws IOException {
+        OrderResponseDto order = null;
+        while (rows.hasNext()) {
+            OrderExportRow row = rows.next();
+            if (order == null || order.getOrderId() != row.getOrderId()) {
+                writeJsonLine(order, writer);
+                order = new OrderResponseDto(row.getOrderId(), row.getMemberId(),
+                        row.getOrderStatus(), row.getCreatedAt());
+                order.setOrderCoffees(new ArrayList<>());
+            }
+            if (row.getCoffeeId() != null) {
+                order.getOrderCoffees().add(OrderCoffeeResponseDto.builder()
+                        .orderId(row.getOrderId())
+                        .coffeeId(row.getCoffeeId())
+                        .quantity(row.getQuantity())
+                        .korName(row.getKorName())
+                        .engName(row.getEngName())
+                        .price(row.getPrice())
+                        .build());
+            }
+        }
+        writeJsonLine(order, writer);
+    }
+
+    private void writeJsonLine(OrderResponseDto order, Writer writer) throws IOException {
+        if (order != null) {
+            writer.write(objectMapper.writeValueAsString(order));
+            writer.write('\n');
+        }
+    }
+
+    /*
+     쉼표, 따옴표, 줄바꿈이 있으면 따옴표로 감싼다.
+     스프레드시트에서 수식으로 실행되지 않도록 =, +, -, @ 로 시작하는 값은 앞에 ' 를 붙인다.
+     */
+    private String toCsvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (value instanceof String && !text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            text = "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    public enum ExportFormat {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv;charset=UTF-8", "csv");
+
+        @Getter
+        private String contentType;
+
+        @Getter
+        private String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.springboot.order.service;
+
+import com.springboot.metrics.SingleFlightRegistry;
+import com.springboot.order.entity.Order;
+import com.springboot.order.repository.OrderIdempotencyKeyRepository;
+import com.springboot.utils.SingleFlight;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/*
+ Idempotency-Key 헤더가 있는 주문 요청을 처리합니다. 같은 키로 다시 들어온 요청은 주문을 새로 만들지 않고
+ 처음 생성된 주문 ID 를 반환합니다.
+
+ - 같은 서버에 동시에 들어온 같은 키의 요청은 single-flight 로 합쳐져서 처음 요청의 결과를 기다립니다.
+ - 이미 처리된 키는 DB 에서 찾습니다.
+ - 다른 서버에서 같은 키를 동시에 처리하는 경우에는 (회원 ID, 키) 유니크 제약조건 때문에
+   한 쪽의 저장만 성공하고, 실패한 쪽은 먼저 저장된 주문 ID 를 반환합니다.
+ */
+@Service
+public class OrderIdempotencyService {
+    private final OrderService orderService;
+    private final OrderIdempotencyKeyRepository orderIdempotencyKeyRepository;
+    private final SingleFlight<String, Long> orderCreations;
+
+    public OrderIdempotencyService(OrderService orderService,
+                                   OrderIdempotencyKeyRepository orderIdempotencyKeyRepository,
+                                   SingleFlightRegistry singleFlightRegistry) {
+        this.orderService = orderService;
+        this.orderIdempotencyKeyRepository = orderIdempotencyKeyRepository;
+        this.orderCreations = singleFlightRegistry.create("order.createOrder");
+    }
+
+    // 주문을 생성하고(또는 이미 생성된 주문을 찾아서) 주문 ID 를 반환합니다.
+    public long createOrder(Order order, String idempotencyKey) {
+        long memberId = order.getMember().getMemberId();
+
+        return orderCreations.load(memberId + ":" + idempotencyKey, () ->
+                findOrderId(memberId, idempotencyKey).orElseGet(() -> {
+                    try {
+                        return orderService.createOrder(order, idempotencyKey).getOrderId();
+                    } catch (DataIntegrityViolationException e) {
+                        return findOrderId(memberId, idempotencyKey).orElseThrow(() -> e);
+                    }
+                }));
+    }
+
+    private Optional<Long> findOrderId(long memberId, String idempotencyKey) {
+        return orderIdempotencyKeyRepository.findOrderIdByMemberIdAndIdempotencyKey(memberId, idempotencyKey);
+    }
+}
@@ -0,0 +1,231 @@
+package com.springboot.order.service;
+
+import com.springboot.exception.BusinessLogicException;
+import com.springboot.exception.ExceptionCode;
+import com.springboot.metrics.LogHistogram;
+import com.springboot.metrics.MetricsSource;
+import com.springboot.order.entity.Order;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ 주문 요청마다 트랜잭션을 커밋하지 않고, 여러 요청의 주문을 모아서 한 트랜잭션으로 저장합니다. (group commit)
+ 주문이 몰리는 시간에는 커밋(로그 flush) 비용이 주문 저장 비용보다 커지기 때문에, 커밋 횟수를 줄이는 것이 목적입니다.
+
+ - 요청 스레드: 주문을 검증한 뒤 큐에 넣고, 저장이 끝나면 완료되는 CompletableFuture 를 받습니다.
+   큐가 가득 차 있으면 기다리지 않고 ORDER_QUEUE_FULL(503) 예외를 던집니다.
+ - 저장 스레드: 첫 주문이 들어온 뒤 max-batch-size 개가 모이거나 max-wait-millis 가 지나면 모인 주문을 한 번에 저장합니다.
+   배치 저장이 실패하면 배치 전체가 롤백되므로, 주문을 한 건씩 다시 저장해서 실패한 주문만 실패로 응답합니다.
+   응답 제한 시간(response-timeout-millis)이 지나 이미 실패로 응답한 주문은 저장하지 않습니다.
+   저장 스레드가 끝나면 더 이상 주문을 받지 않고, 저장하지 못한 주문은 ORDER_QUEUE_FULL 로 실패시킵니다.
+
+ order.ingestion.enabled 가 true 일 때만 저장 스레드를 시작합니다.
+ */
+@Slf4j
+@Component
+public class OrderIngestionPipeline implements MetricsSource {
+    private final OrderService orderService;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final long responseTimeoutMillis;
+    private final BlockingQueue<PendingOrder> queue;
+
+    private final LogHistogram batchSizes = new LogHistogram();
+    private final LogHistogram latencyMicros = new LogHistogram();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder fallbackCount = new LongAdder();
+    private final LongAdder expiredCount = new LongAdder();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public OrderIngestionPipeline(OrderService orderService,
+                                  @Value("${order.ingestion.enabled:false}") boolean enabled,
+                                  @Value("${order.ingestion.max-batch-size:50}") int maxBatchSize,
+                                  @Value("${order.ingestion.max-wait-millis:5}") long maxWaitMillis,
+                                  @Value("${order.ingestion.queue-capacity:1000}") int queueCapacity,
+                                  @Value("${order.ingestion.response-timeout-millis:3000}") long responseTimeoutMillis) {
+        this.orderService = orderService;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.responseTimeoutMillis = responseTimeoutMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::writeOrders, "order-ingestion-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // 큐에 남은 주문을 모두 저장한 뒤 종료한다.
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getResponseTimeoutMillis() {
+        return responseTimeoutMillis;
+    }
+
+    // 주문을 검증해서 큐에 넣고, 주문이 저장되면 주문 ID 로 완료되는 CompletableFuture 를 반환합니다.
+    public CompletableFuture<Long> submit(Order order) {
+        orderService.verifyOrder(order);
+
+        PendingOrder pendingOrder = new PendingOrder(order, System.nanoTime());
+        if (!running || !queue.offer(pendingOrder)) {
+            rejectedCount.increment();
+            throw new BusinessLogicException(ExceptionCode.ORDER_QUEUE_FULL);
+        }
+        // 넣는 사이에 저장 스레드가 끝났으면 이 주문을 꺼내 갈 스레드가 없다.
+        if (!running && queue.remove(pendingOrder)) {
+            rejectedCount.increment();
+            throw new BusinessLogicException(ExceptionCode.ORDER_QUEUE_FULL);
+        }
+
+        return pendingOrder.result;
+    }
+
+    @Override
+    public Map<String, Number> getMetrics() {
+        Map<String, Number> metrics = new TreeMap<>();
+        metrics.put("order.ingestion.queue.size", queue.size());
+        metrics.put("order.ingestion.rejected", rejectedCount.sum());
+        metrics.put("order.ingestion.fallbacks", fallbackCount.sum());
+        metrics.put("order.ingestion.expired", expiredCount.sum());
+        batchSizes.putMetrics("order.ingestion.batch_size", metrics);
+        latencyMicros.putMetrics("order.ingestion.latency_micros", metrics);
+        return metrics;
+    }
+
+    private void writeOrders() {
+        List<PendingOrder> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                try {
+                    PendingOrder first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    collectBatch(batch);
+                    writeBatch(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (RuntimeException e) {
+                    log.error("# order ingestion failed", e);
+                    batch.forEach(pendingOrder -> pendingOrder.result.completeExceptionally(e));
+                }
+                batch.clear();
+            }
+        } finally {
+            // 인터럽트나 Error 로 끝나면 저장 중이던 배치와 큐에 남은 주문이 응답을 받지 못한다.
+            running = false;
+            queue.drainTo(batch);
+            if (!batch.isEmpty()) {
+                log.warn("# order ingestion writer stopped with {} pending orders", batch.size());
+                BusinessLogicException e = new BusinessLogicException(ExceptionCode.ORDER_QUEUE_FULL);
+                batch.forEach(pendingOrder -> pendingOrder.result.completeExceptionally(e));
+            }
+        }
+    }
+
+    // 배치가 가득 차거나 첫 주문 이후 maxWaitNanos 가 지날 때까지 주문을 더 모은다.
+    private void collectBatch(List<PendingOrder> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (batch.size() < maxBatchSize) {
+            if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            PendingOrder next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void writeBatch(List<PendingOrder> batch) {
+        // 기다리는 동안 응답 제한 시간이 지나 이미 실패로 응답한 주문은 저장하지 않는다.
+        int size = batch.size();
+        batch.removeIf(pendingOrder -> pendingOrder.result.isDone());
+        expiredCount.add(size - batch.size());
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchSizes.record(batch.size());
+
+        List<Order> orders = new ArrayList<>(batch.size());
+        batch.forEach(pendingOrder -> orders.add(pendingOrder.order));
+        try {
+            List<Order> savedOrders = orderService.createVerifiedOrders(orders);
+            for (int i = 0; i < batch.size(); i++) {
+                complete(batch.get(i), savedOrders.get(i).getOrderId());
+            }
+        } catch (RuntimeException e) {
+            fallbackCount.increment();
+            batch.forEach(this::writeOrder);
+        }
+    }
+
+    private void writeOrder(PendingOrder pendingOrder) {
+        Order order = pendingOrder.order;
+        // 롤백된 배치에서 발급된 ID 를 지우고 새 주문으로 다시 저장한다.
+        order.setOrderId(null);
+        order.getOrderCoffees().forEach(orderCoffee -> orderCoffee.setOrderCoffeeId(null));
+        try {
+            complete(pendingOrder, orderService.createVerifiedOrders(List.of(order)).get(0).getOrderId());
+        } catch (RuntimeException e) {
+            pendingOrder.result.completeExceptionally(e);
+        }
+    }
+
+    private void complete(PendingOrder pendingOrder, long orderId) {
+        latencyMicros.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - pendingOrder.submittedAt));
+        pendingOrder.result.complete(orderId);
+    }
+
+    private static final class PendingOrder {
+        private final Order order;
+        private final long submittedAt;
+        private final CompletableFuture<Long> result = new CompletableFuture<>();
+
+        private PendingOrder(Order order, long submittedAt) {
+            this.order = order;
+            this.submittedAt = submittedAt;
+        }
+    }
+}
@@ -1,50 +1,160 @@
 package com.springboot.order.service;
 
+import com.springboot.coffee.entity.Coffee;
+import com.springboot.coffee.ranking.CoffeeSalesLeaderboard;
 import com.springboot.coffee.service.CoffeeService;
 import com.springboot.exception.BusinessLogicException;
 import com.springboot.exception.ExceptionCode;
 import com.springboot.helper.StampCalculator;
 import com.springboot.member.entity.Member;
 import com.springboot.member.service.MemberService;
+import com.springboot.order.dto.OrderCoffeeResponseDto;
+import com.springboot.order.dto.OrderCursor;
+import com.springboot.order.dto.OrderResponseDto;
 import com.springboot.order.entity.Order;
+import com.springboot.order.entity.OrderIdempotencyKey;
+import com.springboot.order.repository.ArchivedOrderRepository;
+import com.springboot.order.repository.OrderIdempotencyKeyRepository;
 import com.springboot.order.repository.OrderRepository;
+import com.springboot.report.service.SalesReportService;
 import com.springboot.stamp.Stamp;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Transactional
 @Service
 public class OrderService {
+    // 주문을 한 번에 완료 상태로 바꿀 때 한 트랜잭션에서 잠그고 변경할 최대 주문 수
+    private static final int ORDER_ID_CHUNK_SIZE = 1000;
+
     private final MemberService memberService;
     private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
     private final CoffeeService coffeeService;
+    private final OrderIdempotencyKeyRepository orderIdempotencyKeyRepository;
+    private final SalesReportService salesReportService;
+    private final CoffeeSalesLeaderboard coffeeSalesLeaderboard;
+    private final TransactionTemplate transactionTemplate;
     public OrderService(MemberService memberService,
                         OrderRepository orderRepository,
-                        CoffeeService coffeeService) {
+                        ArchivedOrderRepository archivedOrderRepository,
+                        CoffeeService coffeeService,
+                        OrderIdempotencyKeyRepository orderIdempotencyKeyRepository,
+                        SalesReportService salesReportService,
+                        CoffeeSalesLeaderboard coffeeSalesLeaderboard,
+                        PlatformTransactionManager transactionManager) {
         this.memberService = memberService;
         this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
         this.coffeeService = coffeeService;
+        this.orderIdempotencyKeyRepository = orderIdempotencyKeyRepository;
+        this.salesReportService = salesReportService;
+        this.coffeeSalesLeaderboard = coffeeSalesLeaderboard;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     public Order createOrder(Order order) {
         verifyOrder(order);
         Order savedOrder = saveOrder(order);
         updateStamp(savedOrder);
+        recordSales(savedOrder);
 
         return savedOrder;
     }
 
-    public Order updateOrder(Order order) {
-        Order findOrder = findVerifiedOrder(order.getOrderId());
+    /*
+     검증을 마친 주문 여러 건을 한 트랜잭션으로 저장합니다. (OrderIngestionPipeline 에서 사용)
+     같은 회원의 주문이 여러 건이면 스탬프는 한 번 조회한 회원에 누적되어 커밋할 때 함께 반영됩니다.
+     한 건이라도 실패하면 전체가 롤백됩니다.
+     */
+    public List<Order> createVerifiedOrders(List<Order> orders) {
+        return orders.stream()
+                .map(order -> {
+                    Order savedOrder = saveOrder(order);
+                    updateStamp(savedOrder);
+                    recordSales(savedOrder);
+                    return savedOrder;
+                })
+                .collect(Collectors.toList());
+    }
+
+    /*
+     멱등 키와 함께 주문을 생성합니다. 키를 먼저 저장(flush)하므로 같은 키가 이미 저장되어 있으면
+     주문을 만들기 전에 DataIntegrityViolationException 이 발생합니다.
+     키와 주문은 같은 트랜잭션에서 저장됩니다.
+     */
+    public Order createOrder(Order order, String idempotencyKey) {
+        OrderIdempotencyKey orderIdempotencyKey = orderIdempotencyKeyRepository.saveAndFlush(
+                new OrderIdempotencyKey(order.getMember().getMemberId(), idempotencyKey));
+
+        Order savedOrder = createOrder(order);
+        orderIdempotencyKey.setOrderId(savedOrder.getOrderId());
+
+        return savedOrder;
+    }
 
+    /*
+     주문 상태를 변경하고 변경된 주문을 반환합니다.
+     주문을 조회해서 확인하지 않고, 변경 가능한 상태일 때만 바뀌는 UPDATE 한 번으로 처리합니다.
+     */
+    public OrderResponseDto updateOrder(Order order) {
         Optional.ofNullable(order.getOrderStatus())
-                .ifPresent(orderStatus -> findOrder.setOrderStatus(orderStatus));
-        return orderRepository.save(findOrder);
+                .ifPresent(orderStatus -> changeOrderStatus(order.getOrderId(), orderStatus));
+
+        return findOrderResponse(order.getOrderId());
+    }
+
+    /*
+     currentStatus 상태인 주문을 한 번에 orderStatus 로 변경하고 변경된 주문 수를 반환합니다.
+     createdBefore 가 있으면 그 이전에 생성된 주문만 변경합니다.
+     완료 상태로 바꿀 때는 주문을 ORDER_ID_CHUNK_SIZE 건씩 잠그고 변경해서 청크마다 커밋하므로,
+     변경할 주문이 많아도 잠금은 청크 하나를 처리하는 동안만 유지됩니다.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public int updateOrders(Order.OrderStatus currentStatus, Order.OrderStatus orderStatus,
+                            LocalDateTime createdBefore) {
+        if (!orderStatus.getPreviousStatuses().contains(currentStatus)) {
+            throw new BusinessLogicException(ExceptionCode.CANNOT_CHANGE_ORDER);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime createdBeforeOrNow = Optional.ofNullable(createdBefore).orElse(now);
+        if (orderStatus != Order.OrderStatus.ORDER_COMPLETE) {
+            return transactionTemplate.execute(status ->
+                    orderRepository.updateOrderStatuses(currentStatus, orderStatus, createdBeforeOrNow, now));
+        }
+
+        // 완료된 주문은 매출 집계에 더해야 하므로, 변경할 주문을 잠그고 ID 로 변경한다.
+        // 변경된 주문은 더 이상 currentStatus 가 아니므로 다음 청크는 남은 주문부터 조회된다.
+        int updated = 0;
+        int completed;
+        do {
+            completed = transactionTemplate.execute(status ->
+                    completeOrderChunk(currentStatus, createdBeforeOrNow, now));
+            updated += completed;
+        } while (completed == ORDER_ID_CHUNK_SIZE);
+
+        return updated;
     }
 
     public Order findOrder(long orderId) {
@@ -56,16 +166,99 @@ public class OrderService {
                 Sort.by("orderId").descending()));
     }
 
+    /*
+     주문 조회 응답을 만듭니다. 주문 페이지, 전체 개수, 주문 커피 조회로 쿼리 수가 고정되며
+     페이지 크기가 커져도 늘어나지 않습니다.
+     주문이 보관 테이블로 옮겨졌으면 보관된 주문을 조회합니다.
+     */
+    @Transactional(readOnly = true)
+    public OrderResponseDto findOrderResponse(long orderId) {
+        OrderResponseDto orderResponse = orderRepository.findOrderResponseByOrderId(orderId)
+                .or(() -> archivedOrderRepository.findOrderResponseByOrderId(orderId))
+                .orElseThrow(() -> new BusinessLogicException(ExceptionCode.ORDER_NOT_FOUND));
+        attachOrderCoffees(List.of(orderResponse));
+
+        return orderResponse;
+    }
+
+    @Transactional(readOnly = true)
+    public Page<OrderResponseDto> findOrderResponses(int page, int size) {
+        Page<OrderResponseDto> orderResponses = orderRepository.findOrderResponses(
+                PageRequest.of(page, size, Sort.by("orderId").descending()));
+        attachOrderCoffees(orderResponses.getContent());
+
+        return orderResponses;
+    }
+
+    /*
+     회원의 주문 이력을 최신순으로 조회합니다. cursor 가 없으면 첫 페이지를 조회하고,
+     orderStatus 가 없으면 모든 상태의 주문을 조회합니다.
+     주문 테이블과 보관 테이블에서 같은 조건으로 size 건씩 읽어서 최신순으로 합칩니다.
+     */
+    @Transactional(readOnly = true)
+    public Slice<OrderResponseDto> findMemberOrderResponses(long memberId, Order.OrderStatus orderStatus,
+                                                            String cursor, int size) {
+        Set<Order.OrderStatus> orderStatuses = orderStatus == null ?
+                EnumSet.allOf(Order.OrderStatus.class) : EnumSet.of(orderStatus);
+        Pageable pageable = PageRequest.of(0, size);
+
+        Slice<OrderResponseDto> activeOrderResponses;
+        Slice<OrderResponseDto> archivedOrderResponses;
+        if (cursor == null) {
+            activeOrderResponses = orderRepository.findMemberOrderResponses(memberId, orderStatuses, pageable);
+            archivedOrderResponses =
+                    archivedOrderRepository.findMemberOrderResponses(memberId, orderStatuses, pageable);
+        } else {
+            OrderCursor orderCursor = OrderCursor.decode(cursor);
+            activeOrderResponses = orderRepository.findMemberOrderResponsesAfter(memberId, orderStatuses,
+                    orderCursor.getCreatedAt(), orderCursor.getOrderId(), pageable);
+            archivedOrderResponses = archivedOrderRepository.findMemberOrderResponsesAfter(memberId, orderStatuses,
+                    orderCursor.getCreatedAt(), orderCursor.getOrderId(), pageable);
+        }
+        Slice<OrderResponseDto> orderResponses =
+                mergeOrderResponses(activeOrderResponses, archivedOrderResponses, pageable);
+
+        // 조회 결과가 없을 때만 회원이 존재하는지 확인한다.
+        if (!orderResponses.hasContent() && cursor == null) {
+            memberService.verifyExistsMember(memberId);
+        }
+        attachOrderCoffees(orderResponses.getContent());
+
+        return orderResponses;
+    }
+
+    // 주문 확정(step 2) 이후에는 주문을 취소할 수 없다.
     public void cancelOrder(long orderId) {
-        Order findOrder = findVerifiedOrder(orderId);
-        int step = findOrder.getOrderStatus().getStepNumber();
+        changeOrderStatus(orderId, Order.OrderStatus.ORDER_CANCEL);
+    }
 
-        // OrderStatus의 step이 2 이상일 경우(ORDER_CONFIRM)에는 주문 취소가 되지 않도록한다.
-        if (step >= 2) {
-            throw new BusinessLogicException(ExceptionCode.CANNOT_CHANGE_ORDER);
+    // 변경된 주문이 없으면 주문이 없는 경우와 변경할 수 없는 상태인 경우를 구분해서 예외를 던진다.
+    private void changeOrderStatus(long orderId, Order.OrderStatus orderStatus) {
+        int updated = orderRepository.updateOrderStatus(orderId, orderStatus,
+                orderStatus.getPreviousStatuses(), LocalDateTime.now());
+        if (updated == 0) {
+            // 보관된 주문은 완료/취소된 주문이므로 변경할 수 없다.
+            boolean exists = orderRepository.existsById(orderId) || archivedOrderRepository.existsById(orderId);
+            throw new BusinessLogicException(exists ?
+                    ExceptionCode.CANNOT_CHANGE_ORDER : ExceptionCode.ORDER_NOT_FOUND);
         }
-        findOrder.setOrderStatus(Order.OrderStatus.ORDER_CANCEL);
-        orderRepository.save(findOrder);
+        if (orderStatus == Order.OrderStatus.ORDER_COMPLETE) {
+            salesReportService.addCompletedOrders(List.of(orderId));
+        }
+    }
+
+    private int completeOrderChunk(Order.OrderStatus currentStatus, LocalDateTime createdBefore,
+                                   LocalDateTime modifiedAt) {
+        List<Long> orderIds = orderRepository.findOrderIdsForUpdate(currentStatus, createdBefore,
+                PageRequest.of(0, ORDER_ID_CHUNK_SIZE));
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        int updated = orderRepository.updateOrderStatusesByOrderIdIn(orderIds, currentStatus,
+                Order.OrderStatus.ORDER_COMPLETE, modifiedAt);
+        salesReportService.addCompletedOrders(orderIds);
+
+        return updated;
     }
 
     private Order findVerifiedOrder(long orderId) {
@@ -76,18 +269,70 @@ public class OrderService {
         return findOrder;
     }
 
-    private void verifyOrder(Order order) {
+    private void attachOrderCoffees(List<OrderResponseDto> orderResponses) {
+        if (orderResponses.isEmpty()) {
+            return;
+        }
+        List<Long> orderIds = orderResponses.stream()
+                .map(OrderResponseDto::getOrderId)
+                .collect(Collectors.toList());
+        Map<Long, List<OrderCoffeeResponseDto>> orderCoffeesByOrderId =
+                orderRepository.findOrderCoffeeResponsesByOrderIdIn(orderIds).stream()
+                        .collect(Collectors.groupingBy(OrderCoffeeResponseDto::getOrderId));
+
+        // 주문 커피가 없는 주문은 보관된 주문이므로 보관 테이블에서 한 번 더 조회한다.
+        List<Long> archivedOrderIds = orderIds.stream()
+                .filter(orderId -> !orderCoffeesByOrderId.containsKey(orderId))
+                .collect(Collectors.toList());
+        if (!archivedOrderIds.isEmpty()) {
+            archivedOrderRepository.findOrderCoffeeResponsesByOrderIdIn(archivedOrderIds)
+                    .forEach(orderCoffee -> orderCoffeesByOrderId
+                            .computeIfAbsent(orderCoffee.getOrderId(), orderId -> new ArrayList<>())
+                            .add(orderCoffee));
+        }
+
+        orderResponses.forEach(orderResponse -> orderResponse.setOrderCoffees(
+                orderCoffeesByOrderId.getOrDefault(orderResponse.getOrderId(), List.of())));
+    }
+
+    // 두 목록을 최신순으로 합쳐서 pageable 크기만큼 반환한다. 어느 한쪽이라도 남은 주문이 있으면 다음 페이지가 있다.
+    private Slice<OrderResponseDto> mergeOrderResponses(Slice<OrderResponseDto> activeOrderResponses,
+                                                        Slice<OrderResponseDto> archivedOrderResponses,
+                                                        Pageable pageable) {
+        if (!archivedOrderResponses.hasContent()) {
+            return activeOrderResponses;
+        }
+        List<OrderResponseDto> merged = new ArrayList<>(activeOrderResponses.getContent());
+        merged.addAll(archivedOrderResponses.getContent());
+        merged.sort(Comparator.comparing(OrderResponseDto::getCreatedAt)
+                .thenComparingLong(OrderResponseDto::getOrderId)
+                .reversed());
+
+        boolean hasNext = merged.size() > pageable.getPageSize()
+                || activeOrderResponses.hasNext() || archivedOrderResponses.hasNext();
+        return new SliceImpl<>(merged.subList(0, Math.min(pageable.getPageSize(), merged.size())),
+                pageable, hasNext);
+    }
+
+    // 회원과 커피를 확인하고, 확인한 커피를 주문 커피에 연결합니다.
+    public void verifyOrder(Order order) {
         // 회원이 존재하는지 확인
         memberService.findVerifiedMember(order.getMember().getMemberId());
 
-        // 커피가 존재하는지 확인
-        order.getOrderCoffees().stream()
-                .forEach(orderCoffee -> coffeeService.
-                        findVerifiedCoffee(orderCoffee.getCoffee().getCoffeeId()));
+        // 커피가 존재하는지 한 번에 확인
+        List<Long> coffeeIds = order.getOrderCoffees().stream()
+                .map(orderCoffee -> orderCoffee.getCoffee().getCoffeeId())
+                .collect(Collectors.toList());
+        Map<Long, Coffee> coffees = coffeeService.findVerifiedCoffees(coffeeIds);
+
+        // 검증된 커피를 주문 커피에 연결해서 저장할 때 다시 조회하지 않도록 한다.
+        order.getOrderCoffees()
+                .forEach(orderCoffee -> orderCoffee.setCoffee(
+                        coffees.get(orderCoffee.getCoffee().getCoffeeId())));
     }
 
     private void updateStamp(Order order) {
-        Member member = memberService.findMember(order.getMember().getMemberId());
+        Member member = memberService.findVerifiedMember(order.getMember().getMemberId());
         int earnedStampCount = StampCalculator.calculateEarnedStampCount(order);
 
         Stamp stamp = member.getStamp();
@@ -99,6 +344,17 @@ public class OrderService {
         memberService.updateMember(member);
     }
 
+    // 주문이 커밋된 뒤에 실시간 판매 순위에 반영한다. 롤백된 주문은 반영되지 않는다.
+    private void recordSales(Order order) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                order.getOrderCoffees().forEach(orderCoffee -> coffeeSalesLeaderboard.record(
+                        orderCoffee.getCoffee().getCoffeeId(), orderCoffee.getQuantity()));
+            }
+        });
+    }
+
     private int calculateStampCount(Order order) {
         return order.getOrderCoffees().stream()
                 .map(orderCoffee -> orderCoffee.getQuantity())
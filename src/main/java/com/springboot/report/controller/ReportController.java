@@ -0,0 +1,51 @@
+package com.springboot.report.controller;
+
+import com.springboot.dto.SingleResponseDto;
+import com.springboot.report.dto.DailyCoffeeSalesResponseDto;
+import com.springboot.report.service.SalesReportService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+// 관리자용 매출 리포트입니다. 주문 이력이 아닌 일자별 집계만 읽습니다.
+@RestController
+@RequestMapping("/v11/reports")
+@Validated
+public class ReportController {
+    private final SalesReportService salesReportService;
+
+    public ReportController(SalesReportService salesReportService) {
+        this.salesReportService = salesReportService;
+    }
+
+    // 기간(from ~ to, 날짜 포함)의 일자별, 커피별 매출
+    @GetMapping("/sales")
+    public ResponseEntity getSales(
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @RequestParam LocalDate from,
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @RequestParam LocalDate to) {
+        List<DailyCoffeeSalesResponseDto> dailySales = salesReportService.findDailySales(from, to);
+
+        return new ResponseEntity<>(new SingleResponseDto<>(dailySales), HttpStatus.OK);
+    }
+
+    // 기간(from ~ to, 날짜 포함)의 매출 집계를 완료된 주문으로 다시 만든다.
+    @PostMapping("/sales/rebuild")
+    public ResponseEntity rebuildSales(
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @RequestParam LocalDate from,
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @RequestParam LocalDate to) {
+        int rebuiltCount = salesReportService.rebuildDailySales(from, to);
+
+        return new ResponseEntity<>(new SingleResponseDto<>(Map.of("rebuiltCount", rebuiltCount)),
+                HttpStatus.OK);
+    }
+}
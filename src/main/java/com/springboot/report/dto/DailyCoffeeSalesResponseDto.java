@@ -0,0 +1,30 @@
+package com.springboot.report.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@NoArgsConstructor
+@Getter
+@Setter
+public class DailyCoffeeSalesResponseDto {
+    private LocalDate salesDate;
+    private long coffeeId;
+    private String korName;
+    private String engName;
+    private long quantity;
+    private long revenue;
+    private long orderCount;
+
+    // 매출 집계 조회 쿼리(JPQL 생성자 표현식)에서 사용한다.
+    public DailyCoffeeSalesResponseDto(LocalDate salesDate, Long coffeeId, long quantity,
+                                       long revenue, long orderCount) {
+        this.salesDate = salesDate;
+        this.coffeeId = coffeeId;
+        this.quantity = quantity;
+        this.revenue = revenue;
+        this.orderCount = orderCount;
+    }
+}
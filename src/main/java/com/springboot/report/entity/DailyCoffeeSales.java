@@ -0,0 +1,43 @@
+package com.springboot.report.entity;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import java.time.LocalDate;
+
+/*
+ 일자(주문일)별, 커피별 판매 집계입니다. 주문이 완료(ORDER_COMPLETE)될 때마다 값이 더해지므로
+ 매출을 조회할 때 주문 커피 이력 전체를 읽지 않아도 됩니다.
+ 매출액은 주문이 완료된 시점의 커피 가격으로 계산합니다.
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@IdClass(DailyCoffeeSalesId.class)
+public class DailyCoffeeSales {
+    @Id
+    private LocalDate salesDate;
+
+    @Id
+    private Long coffeeId;
+
+    @Column(nullable = false)
+    private long quantity;
+
+    @Column(nullable = false)
+    private long revenue;
+
+    @Column(nullable = false)
+    private long orderCount;
+
+    public DailyCoffeeSales(LocalDate salesDate, Long coffeeId) {
+        this.salesDate = salesDate;
+        this.coffeeId = coffeeId;
+    }
+}
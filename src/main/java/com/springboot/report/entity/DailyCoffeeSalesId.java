@@ -0,0 +1,18 @@
+package com.springboot.report.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class DailyCoffeeSalesId implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private LocalDate salesDate;
+    private Long coffeeId;
+}
@@ -0,0 +1,72 @@
+package com.springboot.report.repository;
+
+import com.springboot.report.dto.DailyCoffeeSalesResponseDto;
+import com.springboot.report.entity.DailyCoffeeSales;
+import com.springboot.report.entity.DailyCoffeeSalesId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface DailyCoffeeSalesRepository extends JpaRepository<DailyCoffeeSales, DailyCoffeeSalesId> {
+    @Query("SELECT new com.springboot.report.dto.DailyCoffeeSalesResponseDto(" +
+            "s.salesDate, s.coffeeId, s.quantity, s.revenue, s.orderCount) FROM DailyCoffeeSales s " +
+            "WHERE s.salesDate BETWEEN :from AND :to ORDER BY s.salesDate, s.coffeeId")
+    List<DailyCoffeeSalesResponseDto> findDailyCoffeeSalesResponses(LocalDate from, LocalDate to);
+
+    /*
+     집계 행에 판매량을 더합니다. 행을 조회해서 더하지 않고 UPDATE 한 번으로 더하므로
+     같은 커피의 주문이 동시에 완료되어도 값이 유실되지 않습니다. 변경된 행 수(0 또는 1)를 반환합니다.
+     */
+    @Modifying
+    @Query("UPDATE DailyCoffeeSales s SET s.quantity = s.quantity + :quantity, " +
+            "s.revenue = s.revenue + :revenue, s.orderCount = s.orderCount + :orderCount " +
+            "WHERE s.salesDate = :salesDate AND s.coffeeId = :coffeeId")
+    int addSales(LocalDate salesDate, long coffeeId, long quantity, long revenue, long orderCount);
+
+    // 주문 목록의 판매량을 주문일, 커피별로 합산합니다.
+    @Query(value = "SELECT CAST(o.created_at AS DATE) AS salesDate, oc.coffee_id AS coffeeId, " +
+            "SUM(oc.quantity) AS quantity, SUM(oc.quantity * c.price) AS revenue, " +
+            "COUNT(DISTINCT o.order_id) AS orderCount " +
+            "FROM orders o JOIN order_coffee oc ON oc.order_id = o.order_id " +
+            "JOIN coffee c ON c.coffee_id = oc.coffee_id " +
+            "WHERE o.order_id IN (:orderIds) " +
+            "GROUP BY CAST(o.created_at AS DATE), oc.coffee_id", nativeQuery = true)
+    List<SalesDelta> sumSalesByOrderIdIn(Collection<Long> orderIds);
+
+    @Modifying
+    @Query("DELETE FROM DailyCoffeeSales s WHERE s.salesDate BETWEEN :from AND :to")
+    int deleteBySalesDateBetween(LocalDate from, LocalDate to);
+
+    // 완료된 주문(보관된 주문 포함)으로 기간(from 이상 to 미만)의 집계 행을 다시 만듭니다.
+    @Modifying
+    @Query(value = "INSERT INTO daily_coffee_sales (sales_date, coffee_id, quantity, revenue, order_count) " +
+            "SELECT CAST(o.created_at AS DATE), oc.coffee_id, SUM(oc.quantity), SUM(oc.quantity * c.price), " +
+            "COUNT(DISTINCT o.order_id) " +
+            "FROM (SELECT order_id, created_at FROM orders " +
+            "WHERE order_status = 'ORDER_COMPLETE' AND created_at >= :from AND created_at < :to " +
+            "UNION ALL SELECT order_id, created_at FROM orders_archive " +
+            "WHERE order_status = 'ORDER_COMPLETE' AND created_at >= :from AND created_at < :to) o " +
+            "JOIN (SELECT order_id, coffee_id, quantity FROM order_coffee " +
+            "UNION ALL SELECT order_id, coffee_id, quantity FROM order_coffee_archive) oc " +
+            "ON oc.order_id = o.order_id " +
+            "JOIN coffee c ON c.coffee_id = oc.coffee_id " +
+            "GROUP BY CAST(o.created_at AS DATE), oc.coffee_id", nativeQuery = true)
+    int insertCompletedOrderSales(LocalDateTime from, LocalDateTime to);
+
+    interface SalesDelta {
+        LocalDate getSalesDate();
+
+        Long getCoffeeId();
+
+        Long getQuantity();
+
+        Long getRevenue();
+
+        Long getOrderCount();
+    }
+}
@@ -0,0 +1,104 @@
+package com.springboot.report.service;
+
+import com.springboot.coffee.catalog.CoffeeCatalog;
+import com.springboot.report.dto.DailyCoffeeSalesResponseDto;
+import com.springboot.report.entity.DailyCoffeeSales;
+import com.springboot.report.repository.DailyCoffeeSalesRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/*
+ 일자별, 커피별 매출 집계(DAILY_COFFEE_SALES)를 관리합니다.
+
+ - 주문이 완료되면 주문 상태를 변경한 트랜잭션 안에서 완료된 주문의 판매량을 집계에 더합니다.
+ - 주문 취소는 주문이 확정(step 2)되기 전에만 가능하므로, 이미 집계된 완료 주문이 취소되는 경우는 없습니다.
+ - 집계가 주문과 어긋났을 때(가격 변경, 수동 데이터 수정 등)는 기간을 지정해서 완료된 주문으로 다시 만들 수 있으며,
+   매일 새벽에 전날 집계를 다시 만듭니다.
+ */
+@Slf4j
+@Transactional
+@Service
+public class SalesReportService {
+    private final DailyCoffeeSalesRepository dailyCoffeeSalesRepository;
+    private final CoffeeCatalog coffeeCatalog;
+    private final TransactionTemplate newTransactionTemplate;
+
+    public SalesReportService(DailyCoffeeSalesRepository dailyCoffeeSalesRepository,
+                              CoffeeCatalog coffeeCatalog,
+                              PlatformTransactionManager transactionManager) {
+        this.dailyCoffeeSalesRepository = dailyCoffeeSalesRepository;
+        this.coffeeCatalog = coffeeCatalog;
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // 완료된 주문의 판매량을 집계에 더합니다. 주문 상태를 변경한 트랜잭션 안에서 호출해야 합니다.
+    public void addCompletedOrders(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        for (DailyCoffeeSalesRepository.SalesDelta delta : dailyCoffeeSalesRepository.sumSalesByOrderIdIn(orderIds)) {
+            if (addSales(delta) == 0) {
+                createSalesRow(delta);
+                addSales(delta);
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<DailyCoffeeSalesResponseDto> findDailySales(LocalDate from, LocalDate to) {
+        List<DailyCoffeeSalesResponseDto> dailySales =
+                dailyCoffeeSalesRepository.findDailyCoffeeSalesResponses(from, to);
+        // 커피 이름은 DB 에서 조인하지 않고 카탈로그에서 채운다.
+        dailySales.forEach(sales -> coffeeCatalog.findById(sales.getCoffeeId())
+                .ifPresent(coffee -> {
+                    sales.setKorName(coffee.getKorName());
+                    sales.setEngName(coffee.getEngName());
+                }));
+
+        return dailySales;
+    }
+
+    // 기간(from ~ to, 날짜 포함)의 집계를 완료된 주문으로 다시 만들고, 만들어진 집계 행 수를 반환합니다.
+    public int rebuildDailySales(LocalDate from, LocalDate to) {
+        dailyCoffeeSalesRepository.deleteBySalesDateBetween(from, to);
+
+        return dailyCoffeeSalesRepository.insertCompletedOrderSales(from.atStartOfDay(),
+                to.plusDays(1).atStartOfDay());
+    }
+
+    @Scheduled(cron = "${report.sales.rebuild-cron:0 30 3 * * *}")
+    public void rebuildYesterdaySales() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        int rebuilt = rebuildDailySales(yesterday, yesterday);
+        log.info("# rebuilt daily coffee sales of {}: {} rows", yesterday, rebuilt);
+    }
+
+    private int addSales(DailyCoffeeSalesRepository.SalesDelta delta) {
+        return dailyCoffeeSalesRepository.addSales(delta.getSalesDate(), delta.getCoffeeId(),
+                delta.getQuantity(), delta.getRevenue(), delta.getOrderCount());
+    }
+
+    /*
+     그날 처음 팔린 커피의 집계 행(값 0)을 별도 트랜잭션으로 만든다.
+     다른 요청이 먼저 만들었다면 중복 키 예외를 무시하고 그 행에 더한다.
+     */
+    private void createSalesRow(DailyCoffeeSalesRepository.SalesDelta delta) {
+        try {
+            newTransactionTemplate.executeWithoutResult(status -> dailyCoffeeSalesRepository.saveAndFlush(
+                    new DailyCoffeeSales(delta.getSalesDate(), delta.getCoffeeId())));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("# daily coffee sales row already exists: {} {}", delta.getSalesDate(), delta.getCoffeeId());
+        }
+    }
+}
@@ -47,6 +47,10 @@ public class ErrorResponse {
         return new ErrorResponse(exceptionCode.getStatus(), exceptionCode.getMessage());
     }
 
+    public static ErrorResponse of(ExceptionCode exceptionCode, String message) {
+        return new ErrorResponse(exceptionCode.getStatus(), message);
+    }
+
     public static ErrorResponse of(HttpStatus httpStatus) {
         return new ErrorResponse(httpStatus.value(), httpStatus.getReasonPhrase());
     }
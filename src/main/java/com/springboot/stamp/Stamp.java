@@ -5,6 +5,8 @@ import com.springboot.member.entity.Member;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 
@@ -12,6 +14,8 @@ import javax.persistence.*;
 @Setter
 @NoArgsConstructor
 @Entity
+// 주문마다 개수가 바뀌므로 수정 중인 값을 다른 트랜잭션이 읽지 않도록 READ_WRITE 로 캐시한다.
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Stamp extends Auditable {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,73 @@
+package com.springboot.utils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/*
+ 같은 키로 동시에 들어온 조회 요청을 하나로 합쳐주는 클래스입니다. (single-flight)
+ 먼저 들어온 요청(leader)만 실제로 loader 를 실행하고, 그 사이에 같은 키로 들어온 요청들은
+ leader 의 결과(또는 예외)를 그대로 공유합니다. 조회가 끝나면 키를 지우기 때문에 캐시처럼 값을 보관하지는 않습니다.
+ */
+public class SingleFlight<K, V> {
+    private final String name;
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlightLoads = new ConcurrentHashMap<>();
+    private final LongAdder loadCount = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    public V load(K key, Supplier<V> loader) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> inFlightLoad = inFlightLoads.putIfAbsent(key, future);
+        if (inFlightLoad != null) {
+            coalescedCount.increment();
+            return join(inFlightLoad);
+        }
+
+        loadCount.increment();
+        try {
+            V value = loader.get();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(key, future);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // 실제로 loader 를 실행한 횟수
+    public long getLoadCount() {
+        return loadCount.sum();
+    }
+
+    // 진행 중인 조회에 합쳐져서 loader 를 실행하지 않은 횟수
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    private V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.springboot.coffee.controller;
+
+import com.springboot.coffee.entity.Coffee;
+import com.springboot.coffee.repository.CoffeeRepository;
+import com.springboot.coffee.service.CoffeeService;
+import com.springboot.fixture.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:coffee-controller")
+@AutoConfigureMockMvc
+class CoffeeControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CoffeeService coffeeService;
+
+    @Autowired
+    private CoffeeRepository coffeeRepository;
+
+    @Test
+    void notModifiedOnlyForExistingCoffee() throws Exception {
+        Coffee coffee = coffeeService.createCoffee(TestFixtures.createCoffee("ETG"));
+
+        String eTag = mockMvc.perform(get("/v11/coffees/{coffee-id}", coffee.getCoffeeId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/v11/coffees/{coffee-id}", coffee.getCoffeeId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        // 메뉴의 ETag 가 같아도 없는 커피는 404 를 응답한다.
+        mockMvc.perform(get("/v11/coffees/{coffee-id}", 999999L)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotFound());
+
+        coffeeService.deleteCoffee(coffee.getCoffeeId());
+        mockMvc.perform(get("/v11/coffees/{coffee-id}", coffee.getCoffeeId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void catalogGenerationComesFromLastModifiedAt() {
+        coffeeService.createCoffee(TestFixtures.createCoffee("GEN"));
+
+        coffeeService.loadCatalog();
+
+        // 같은 DB 에서 메뉴를 읽은 서버는 같은 세대 번호를 사용한다.
+        long lastModifiedAt = coffeeRepository.findLastModifiedAt().orElseThrow()
+                .toInstant(ZoneOffset.UTC).toEpochMilli();
+        assertThat(coffeeService.getCatalogGeneration()).isEqualTo(lastModifiedAt);
+    }
+
+    @Test
+    void gzipOnlyWhenAccepted() throws Exception {
+        mockMvc.perform(get("/v11/coffees").param("page", "1").param("size", "10")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+        mockMvc.perform(get("/v11/coffees").param("page", "1").param("size", "10")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+        mockMvc.perform(get("/v11/coffees").param("page", "1").param("size", "10")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "*, gzip;q=0.0"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+        mockMvc.perform(get("/v11/coffees").param("page", "1").param("size", "10")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, *;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+    }
+}
@@ -0,0 +1,74 @@
+package com.springboot.coffee.entity;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ 영속성 컨텍스트에 엔티티가 많이 올라와 있을 때 한 엔티티만 수정하고 flush 하는 데 걸리는 시간을 측정하는 벤치마크입니다.
+ 바이트코드 향상(dirty tracking)이 없으면 flush 할 때마다 모든 엔티티를 스냅샷과 비교합니다.
+ 다른 테스트와 데이터가 섞이지 않도록 별도의 인메모리 DB 를 사용합니다.
+ ./gradlew test -Dbenchmark=true 로 실행합니다.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:entity-flush-benchmark",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.springframework.orm.jpa=INFO"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class EntityFlushBenchmarkTest {
+    private static final int COFFEE_COUNT = 10_000;
+    private static final int ITERATIONS = 500;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void benchmarkFlush() {
+        insertCoffees();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<Coffee> coffees = em.createQuery("SELECT c FROM Coffee c", Coffee.class).getResultList();
+
+            measure(coffees);
+            long flushMicros = measure(coffees);
+            System.out.printf("entity flush benchmark: managed coffees=%d, flush after one change=%dus%n",
+                    coffees.size(), flushMicros);
+            status.setRollbackOnly();
+        });
+    }
+
+    private long measure(List<Coffee> coffees) {
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            Coffee coffee = coffees.get(i % coffees.size());
+            coffee.setPrice(coffee.getPrice() + 100);
+            em.flush();
+        }
+        return (System.nanoTime() - startedAt) / 1_000 / ITERATIONS;
+    }
+
+    private void insertCoffees() {
+        List<Object[]> rows = new ArrayList<>(COFFEE_COUNT);
+        for (int i = 0; i < COFFEE_COUNT; i++) {
+            String coffeeCode = "" + (char) ('A' + i / 676) + (char) ('A' + i / 26 % 26) + (char) ('A' + i % 26);
+            rows.add(new Object[]{"커피" + i, "Coffee", 3000, coffeeCode});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO coffee (kor_name, eng_name, price, coffee_code, coffee_status, " +
+                "created_at, last_modified_at) VALUES (?, ?, ?, ?, 'COFFEE_FOR_SALE', NOW(), NOW())", rows);
+    }
+}
@@ -0,0 +1,75 @@
+package com.springboot.coffee.ranking;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class CoffeeSalesLeaderboardTest {
+    private static final long MINUTE = 60_000;
+
+    private final AtomicLong now = new AtomicLong(100 * MINUTE);
+    private final CoffeeSalesLeaderboard leaderboard = new CoffeeSalesLeaderboard(now::get);
+
+    @Test
+    void ranksSalesInsideWindow() {
+        leaderboard.record(1L, 5);
+        now.addAndGet(10 * MINUTE);
+        leaderboard.record(2L, 3);
+        leaderboard.record(3L, 3);
+        leaderboard.record(1L, 1);
+
+        assertThat(leaderboard.getTopCoffees(15, 10))
+                .extracting("coffeeId", "quantity")
+                .containsExactly(tuple(1L, 6L), tuple(2L, 3L), tuple(3L, 3L));
+
+        // 1초가 지나기 전까지는 같은 순위를 반환한다.
+        leaderboard.record(3L, 10);
+        assertThat(leaderboard.getTopCoffees(15, 1))
+                .extracting("coffeeId").containsExactly(1L);
+
+        // 첫 판매가 5분 window 밖으로 밀려난다.
+        now.addAndGet(1_000);
+        assertThat(leaderboard.getTopCoffees(5, 2))
+                .extracting("coffeeId", "quantity")
+                .containsExactly(tuple(3L, 13L), tuple(2L, 3L));
+
+        // 60분이 지나면 예전 버킷은 같은 자리에 새 버킷이 만들어지면서 버려진다.
+        now.addAndGet(60 * MINUTE);
+        leaderboard.record(4L, 1);
+        assertThat(leaderboard.getTopCoffees(60, 10))
+                .extracting("coffeeId", "quantity")
+                .containsExactly(tuple(4L, 1L));
+    }
+
+    @Test
+    void concurrentRecordsAreNotLost() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> results = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            results.add(executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    leaderboard.record(i % 3 + 1, 1);
+                    if (i % 1_000 == 0) {
+                        now.addAndGet(1_000);
+                    }
+                }
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+
+        assertThat(leaderboard.getTopCoffees(60, 10))
+                .extracting("quantity")
+                .containsExactly(26_672L, 26_664L, 26_664L);
+    }
+}
@@ -0,0 +1,101 @@
+package com.springboot.coffee.search;
+
+import com.springboot.coffee.entity.Coffee;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CoffeeSearchIndexTest {
+
+    @Test
+    void searchByNameChosungAndJamo() {
+        CoffeeSearchIndex index = new CoffeeSearchIndex();
+        index.rebuild(List.of(
+                coffee(1L, "아메리카노", "Americano"),
+                coffee(2L, "카페라떼", "Cafe Latte"),
+                coffee(3L, "바닐라 라떼", "Vanilla Latte"),
+                coffee(4L, "아이스 아메리카노", "Iced Americano")));
+
+        assertThat(ids(index.search("아메리카노", 10))).containsExactly(1L, 4L);
+        assertThat(ids(index.search("latte", 10))).containsExactly(2L, 3L);
+        assertThat(ids(index.search("ㅇㅁㄹ", 10))).containsExactly(1L, 4L);
+        assertThat(ids(index.search("카페ㄹ", 10))).containsExactly(2L);
+        assertThat(ids(index.search("바닐라라떼", 10))).containsExactly(3L);
+        assertThat(index.search("모카", 10)).isEmpty();
+    }
+
+    @Test
+    void indexIsUpdatedIncrementally() {
+        CoffeeSearchIndex index = new CoffeeSearchIndex();
+        index.rebuild(List.of(coffee(1L, "아메리카노", "Americano")));
+
+        index.index(coffee(1L, "콜드브루", "Cold Brew"));
+        index.index(coffee(2L, "카페모카", "Cafe Mocha"));
+
+        assertThat(index.search("아메리카노", 10)).isEmpty();
+        assertThat(ids(index.search("ㅋㄷ", 10))).containsExactly(1L);
+        assertThat(ids(index.search("모카", 10))).containsExactly(2L);
+
+        index.remove(2L);
+        assertThat(index.search("모카", 10)).isEmpty();
+    }
+
+    // ./gradlew test -Dbenchmark=true 로 실행합니다.
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkWithSyntheticMenu() {
+        String[] korPrefixes = {"바닐라", "카라멜", "헤이즐넛", "아이스", "디카페인", "흑당", "말차", "시나몬", "토피넛", "돌체"};
+        String[] korBases = {"라떼", "아메리카노", "모카", "콜드브루", "마끼아또", "플랫화이트", "에스프레소", "카푸치노"};
+        String[] engPrefixes = {"Vanilla", "Caramel", "Hazelnut", "Iced", "Decaf", "Brown Sugar", "Matcha", "Cinnamon", "Toffee Nut", "Dolce"};
+        String[] engBases = {"Latte", "Americano", "Mocha", "Cold Brew", "Macchiato", "Flat White", "Espresso", "Cappuccino"};
+
+        Random random = new Random(42);
+        List<Coffee> menu = new ArrayList<>();
+        for (long coffeeId = 1; coffeeId <= 10_000; coffeeId++) {
+            int prefix = random.nextInt(korPrefixes.length);
+            int base = random.nextInt(korBases.length);
+            menu.add(coffee(coffeeId,
+                    korPrefixes[prefix] + " " + korBases[base] + " " + coffeeId,
+                    engPrefixes[prefix] + " " + engBases[base]));
+        }
+
+        CoffeeSearchIndex index = new CoffeeSearchIndex();
+        long buildStartedAt = System.nanoTime();
+        index.rebuild(menu);
+        long buildMillis = (System.nanoTime() - buildStartedAt) / 1_000_000;
+
+        String[] queries = {"라떼", "바닐라라떼", "ㅋㄹㅁ", "콜드ㅂ", "mocha", "iced amer", "9999", "ㅎㅇㅈㄴ"};
+        for (int i = 0; i < 2_000; i++) {
+            index.search(queries[i % queries.length], 20);
+        }
+
+        int iterations = 20_000;
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            index.search(queries[i % queries.length], 20);
+        }
+        long averageMicros = (System.nanoTime() - startedAt) / 1_000 / iterations;
+
+        System.out.printf("coffee search benchmark: items=%d, build=%dms, average query=%dus%n",
+                menu.size(), buildMillis, averageMicros);
+        assertThat(ids(index.search("9999", 20))).contains(9999L);
+    }
+
+    private Coffee coffee(long coffeeId, String korName, String engName) {
+        Coffee coffee = new Coffee();
+        coffee.setCoffeeId(coffeeId);
+        coffee.setKorName(korName);
+        coffee.setEngName(engName);
+        return coffee;
+    }
+
+    private List<Long> ids(List<Coffee> coffees) {
+        return coffees.stream().map(Coffee::getCoffeeId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,68 @@
+package com.springboot.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 원본과 복제본을 서로 다른 H2 인메모리 DB 로 띄워서 어느 DB 로 연결되는지 확인한다.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary",
+        "spring.datasource.replica.url=jdbc:h2:mem:routing-replica",
+        "spring.datasource.replica.read-your-writes-millis=60000"})
+class ReadWriteRoutingDataSourceTest {
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void routeByReadOnlyTest() {
+        assertThat(currentDatabase(false)).isEqualToIgnoringCase("routing-primary");
+        assertThat(currentDatabase(true)).isEqualToIgnoringCase("routing-replica");
+    }
+
+    @Test
+    void readYourWritesTest() {
+        login("writer@gmail.com");
+        assertThat(currentDatabase(true)).isEqualToIgnoringCase("routing-replica");
+
+        // 쓰기 트랜잭션이 커밋된 뒤에는 같은 회원의 읽기도 원본으로 간다.
+        currentDatabase(false);
+        assertThat(currentDatabase(true)).isEqualToIgnoringCase("routing-primary");
+
+        // 다른 회원과 로그인하지 않은 요청은 복제본으로 간다.
+        login("reader@gmail.com");
+        assertThat(currentDatabase(true)).isEqualToIgnoringCase("routing-replica");
+        SecurityContextHolder.clearContext();
+        assertThat(currentDatabase(true)).isEqualToIgnoringCase("routing-replica");
+    }
+
+    private String currentDatabase(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT DATABASE()", String.class));
+    }
+
+    private void login(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+    }
+}
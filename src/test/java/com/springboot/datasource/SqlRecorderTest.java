@@ -0,0 +1,131 @@
+package com.springboot.datasource;
+
+import com.springboot.auth.jwt.JwtTokenizer;
+import com.springboot.coffee.entity.Coffee;
+import com.springboot.fixture.TestFixtures;
+import com.springboot.member.entity.Member;
+import com.springboot.order.entity.Order;
+import com.springboot.order.entity.OrderCoffee;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 다른 테스트와 데이터가 섞이지 않도록 별도의 인메모리 DB 를 사용합니다.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:sql-recorder")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SqlRecorderTest {
+    private static final String EMAIL = "sql-recorder@gmail.com";
+    private static final int ORDER_COUNT = 6;
+
+    @Autowired
+    private SqlRecorder sqlRecorder;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JwtTokenizer jwtTokenizer;
+
+    @BeforeAll
+    void setUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> createOrders());
+    }
+
+    @Test
+    void getOrdersIssuesAtMostThreeQueries() throws Exception {
+        try (SqlCapture capture = sqlRecorder.capture()) {
+            mockMvc.perform(get("/v11/orders?page=1&size=10").header("Authorization", createAccessToken()))
+                    .andExpect(status().isOk());
+
+            // 주문 페이지, 전체 주문 수, 주문 커피
+            assertThat(capture.getStatementCount()).isLessThanOrEqualTo(3);
+            assertThat(capture.getRepeatedQueries(2)).isEmpty();
+        }
+    }
+
+    @Test
+    void repeatedQueriesAreReportedAsNPlusOne() {
+        long nPlusOneRequests = sqlRecorder.getMetrics().get("sql.n_plus_one").longValue();
+
+        try (SqlCapture capture = sqlRecorder.capture()) {
+            // 주문마다 주문 커피를 지연 로딩한다.
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    em.createQuery("SELECT o FROM ORDERS o", Order.class).getResultList()
+                            .forEach(order -> order.getOrderCoffees().size()));
+
+            assertThat(capture.getRepeatedQueries(ORDER_COUNT)).hasSize(1);
+            sqlRecorder.recordRequest("GET /test", capture);
+        }
+
+        assertThat(sqlRecorder.getMetrics().get("sql.n_plus_one").longValue()).isEqualTo(nPlusOneRequests + 1);
+    }
+
+    @Test
+    void slowQueriesAreCounted() {
+        long slowStatements = sqlRecorder.getMetrics().get("sql.slow").longValue();
+        jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS SLEEP FOR \"java.lang.Thread.sleep\"");
+
+        try (SqlCapture capture = sqlRecorder.capture()) {
+            jdbcTemplate.update("CALL SLEEP(?)", 150L);
+
+            assertThat(capture.getStatementCount()).isEqualTo(1);
+            assertThat(capture.getElapsedMicros()).isGreaterThanOrEqualTo(150_000);
+        }
+
+        assertThat(sqlRecorder.getMetrics().get("sql.slow").longValue()).isEqualTo(slowStatements + 1);
+    }
+
+    private void createOrders() {
+        Coffee coffee = TestFixtures.createCoffee("SQL");
+        em.persist(coffee);
+
+        Member member = TestFixtures.createMember(EMAIL, "USER", "ADMIN");
+        em.persist(member);
+
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            Order order = new Order();
+            order.setMember(member);
+            OrderCoffee orderCoffee = new OrderCoffee();
+            orderCoffee.setQuantity(1);
+            orderCoffee.setCoffee(coffee);
+            order.addOrderCoffee(orderCoffee);
+            em.persist(order);
+        }
+    }
+
+    private String createAccessToken() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("username", EMAIL);
+        claims.put("roles", List.of("USER", "ADMIN"));
+
+        return "Bearer " + jwtTokenizer.generateAccessToken(claims, EMAIL,
+                jwtTokenizer.getTokenExpiration(jwtTokenizer.getAccessTokenExpirationMinutes()),
+                jwtTokenizer.encodeBase64SecretKey(jwtTokenizer.getSecretKey()));
+    }
+}
@@ -0,0 +1,53 @@
+package com.springboot.fixture;
+
+import com.springboot.coffee.entity.Coffee;
+import com.springboot.member.entity.Member;
+import com.springboot.stamp.Stamp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ 테스트에서 저장할 회원과 커피를 만듭니다.
+ 여러 테스트 클래스가 같은 인메모리 DB 를 사용하므로, 회원의 전화번호는 호출할 때마다 다른 번호를 사용합니다.
+ 이메일과 커피 코드는 테스트에서 조회할 때 사용하므로 호출하는 쪽에서 다른 테스트와 겹치지 않는 값을 넘깁니다.
+ */
+public final class TestFixtures {
+    private static final AtomicInteger PHONE_SEQUENCE = new AtomicInteger();
+
+    private TestFixtures() {
+    }
+
+    public static Member createMember(String email) {
+        return createMember(email, "USER");
+    }
+
+    // 스탬프가 0개인 회원을 만든다. 권한 목록은 저장 후에도 바꿀 수 있도록 변경 가능한 목록으로 만든다.
+    public static Member createMember(String email, String... roles) {
+        Member member = new Member(email, "회원", nextPhone());
+        member.setPassword("password");
+        member.setRoles(new ArrayList<>(List.of(roles)));
+        member.setStamp(new Stamp());
+        return member;
+    }
+
+    public static Coffee createCoffee(String coffeeCode) {
+        return createCoffee("아메리카노", "Americano", 3000, coffeeCode);
+    }
+
+    public static Coffee createCoffee(String korName, String engName, int price, String coffeeCode) {
+        Coffee coffee = new Coffee();
+        coffee.setKorName(korName);
+        coffee.setEngName(engName);
+        coffee.setPrice(price);
+        coffee.setCoffeeCode(coffeeCode);
+        return coffee;
+    }
+
+    // 010-0000-0000 부터 차례로 사용한다.
+    private static String nextPhone() {
+        int sequence = PHONE_SEQUENCE.getAndIncrement();
+        return String.format("010-%04d-%04d", sequence / 10_000, sequence % 10_000);
+    }
+}
@@ -0,0 +1,144 @@
+package com.springboot.job.service;
+
+import com.springboot.auth.jwt.TokenRevocations;
+import com.springboot.coffee.entity.Coffee;
+import com.springboot.coffee.repository.CoffeeRepository;
+import com.springboot.coffee.service.CoffeeService;
+import com.springboot.exception.BusinessLogicException;
+import com.springboot.exception.ExceptionCode;
+import com.springboot.fixture.TestFixtures;
+import com.springboot.member.entity.Member;
+import com.springboot.member.repository.MemberRepository;
+import com.springboot.member.service.MemberService;
+import com.springboot.order.entity.Order;
+import com.springboot.order.entity.OrderCoffee;
+import com.springboot.order.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "purge.chunk-size=1")
+@Transactional
+class SoftDeletePurgerTest {
+    @Autowired
+    private SoftDeletePurger softDeletePurger;
+
+    @Autowired
+    private TokenRevocations tokenRevocations;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private CoffeeService coffeeService;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private CoffeeRepository coffeeRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    private Member member;
+    private Coffee orderedCoffee;
+    private Coffee unorderedCoffee;
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        orderedCoffee = TestFixtures.createCoffee("PGA");
+        unorderedCoffee = TestFixtures.createCoffee("PGB");
+        em.persist(orderedCoffee);
+        em.persist(unorderedCoffee);
+
+        member = TestFixtures.createMember("purge@gmail.com");
+        em.persist(member);
+
+        order = new Order();
+        order.setMember(member);
+        OrderCoffee orderCoffee = new OrderCoffee();
+        orderCoffee.setQuantity(1);
+        orderCoffee.setCoffee(orderedCoffee);
+        order.addOrderCoffee(orderCoffee);
+        em.persist(order);
+        em.flush();
+    }
+
+    @Test
+    void quitMemberTokensAreNotRevokedOnRollback() {
+        Date issuedAt = new Date();
+
+        memberService.deleteMember(member.getMemberId());
+
+        // 탈퇴가 커밋되기 전에는 토큰을 무효화하지 않으므로, 롤백되면 기존 토큰을 계속 사용할 수 있다.
+        assertThat(tokenRevocations.isRevoked("purge@gmail.com", issuedAt)).isFalse();
+        TestTransaction.end();
+        assertThat(tokenRevocations.isRevoked("purge@gmail.com", issuedAt)).isFalse();
+    }
+
+    @Test
+    void purgeQuitMembersTest() {
+        memberService.deleteMember(member.getMemberId());
+        em.flush();
+        em.clear();
+
+        // 탈퇴한 회원은 바로 조회에서 제외된다.
+        assertThatThrownBy(() -> memberService.findVerifiedMember(member.getMemberId()))
+                .isInstanceOf(BusinessLogicException.class)
+                .extracting("exceptionCode").isEqualTo(ExceptionCode.MEMBER_NOT_FOUND);
+        assertThat(memberService.findMembers(List.of(member.getMemberId()))).isEmpty();
+
+        int purged = softDeletePurger.purgeQuitMembers();
+        em.clear();
+
+        assertThat(purged).isEqualTo(1);
+        Member purgedMember = memberRepository.findById(member.getMemberId()).orElseThrow();
+        assertThat(purgedMember.getPurgedAt()).isNotNull();
+        assertThat(purgedMember.getEmail()).isNotEqualTo("purge@gmail.com");
+        assertThat(purgedMember.getStamp()).isNull();
+        assertThat(purgedMember.getRoles()).isEmpty();
+        assertThat(memberRepository.findByEmail("purge@gmail.com")).isEmpty();
+        // 주문 이력은 남는다.
+        assertThat(orderRepository.existsById(order.getOrderId())).isTrue();
+
+        assertThat(softDeletePurger.purgeQuitMembers()).isZero();
+        assertThat(softDeletePurger.getMetrics().get("purge.member.pending")).isEqualTo(0L);
+    }
+
+    @Test
+    void purgeDeletedCoffeesTest() {
+        coffeeService.deleteCoffee(orderedCoffee.getCoffeeId());
+        coffeeService.deleteCoffee(unorderedCoffee.getCoffeeId());
+
+        assertThat(coffeeService.findCoffees(List.of(orderedCoffee.getCoffeeId()))).isEmpty();
+
+        int purged = softDeletePurger.purgeDeletedCoffees();
+        em.clear();
+
+        // 주문된 적이 있는 커피는 주문 이력을 위해 남는다.
+        assertThat(purged).isEqualTo(1);
+        assertThat(coffeeRepository.existsById(orderedCoffee.getCoffeeId())).isTrue();
+        assertThat(coffeeRepository.existsById(unorderedCoffee.getCoffeeId())).isFalse();
+
+        // 남아 있는 커피의 코드는 다시 사용할 수 없고, 지워진 커피의 코드는 다시 사용할 수 있다.
+        assertThatThrownBy(() -> coffeeService.createCoffee(TestFixtures.createCoffee("PGA")))
+                .isInstanceOf(BusinessLogicException.class)
+                .extracting("exceptionCode").isEqualTo(ExceptionCode.COFFEE_CODE_EXISTS);
+        assertThat(coffeeService.createCoffee(TestFixtures.createCoffee("PGB")).getCoffeeId()).isNotNull();
+    }
+}
@@ -0,0 +1,159 @@
+package com.springboot.jpa;
+
+import com.springboot.auth.jwt.JwtTokenizer;
+import com.springboot.coffee.entity.Coffee;
+import com.springboot.datasource.ConnectionPoolMetrics;
+import com.springboot.fixture.TestFixtures;
+import com.springboot.member.entity.Member;
+import com.springboot.order.entity.Order;
+import com.springboot.order.entity.OrderCoffee;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+ open-in-view 를 켰을 때와 껐을 때 요청이 커넥션을 잡고 있는 시간을 비교하는 벤치마크입니다.
+ 회원, 주문, 커피 조회 요청을 ROUNDS 번 보내서 워밍업한 뒤, 같은 요청을 한 번 더 보낸 구간의
+ 커넥션 대여 횟수, 대여당 평균 사용 시간, 요청당 사용 시간을 ConnectionPoolMetrics 에서 구해 출력합니다.
+ 설정마다 별도의 인메모리 DB 를 사용합니다.
+ ./gradlew test -Dbenchmark=true 로 실행합니다.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ConnectionHoldTimeBenchmarkTest {
+    private static final int ROUNDS = 300;
+
+    @Nested
+    @SpringBootTest(properties = {
+            "spring.datasource.url=jdbc:h2:mem:hold-time-open-in-view",
+            "spring.jpa.open-in-view=true"
+    })
+    @AutoConfigureMockMvc
+    class OpenInViewOn extends HoldTimeBenchmark {
+    }
+
+    @Nested
+    @SpringBootTest(properties = {
+            "spring.datasource.url=jdbc:h2:mem:hold-time-no-open-in-view",
+            "spring.jpa.open-in-view=false"
+    })
+    @AutoConfigureMockMvc
+    class OpenInViewOff extends HoldTimeBenchmark {
+    }
+
+    abstract class HoldTimeBenchmark {
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Autowired
+        private EntityManager em;
+
+        @Autowired
+        private PlatformTransactionManager transactionManager;
+
+        @Autowired
+        private JwtTokenizer jwtTokenizer;
+
+        @Autowired
+        private ConnectionPoolMetrics connectionPoolMetrics;
+
+        @Autowired
+        private Environment environment;
+
+        @Test
+        void benchmarkConnectionHoldTime() throws Exception {
+            long[] ids = new TransactionTemplate(transactionManager).execute(status -> createOrders());
+            String[] urls = {
+                    "/v11/members/" + ids[0],
+                    "/v11/members?page=1&size=10",
+                    "/v11/members?ids=" + ids[0],
+                    "/v11/members/" + ids[0] + "/orders?size=10",
+                    "/v11/orders/" + ids[1],
+                    "/v11/orders?page=1&size=10",
+                    "/v11/coffees?page=1&size=10"
+            };
+            String accessToken = createAccessToken();
+
+            sendRequests(urls, accessToken);
+            double[] before = sumUsage();
+            sendRequests(urls, accessToken);
+            double[] after = sumUsage();
+
+            double borrows = after[0] - before[0];
+            double usageMillis = after[1] - before[1];
+            System.out.printf("connection hold time benchmark: open-in-view=%s, requests=%d, borrows=%.0f, " +
+                            "mean hold=%.2fms, held per request=%.2fms%n",
+                    environment.getProperty("spring.jpa.open-in-view"), ROUNDS * urls.length, borrows,
+                    usageMillis / borrows, usageMillis / (ROUNDS * urls.length));
+        }
+
+        private void sendRequests(String[] urls, String accessToken) throws Exception {
+            for (int i = 0; i < ROUNDS; i++) {
+                for (String url : urls) {
+                    mockMvc.perform(get(url).header("Authorization", accessToken))
+                            .andExpect(status().isOk());
+                }
+            }
+        }
+
+        // 모든 커넥션 풀의 대여 횟수와 사용 시간 합계(평균 x 횟수)
+        private double[] sumUsage() {
+            Map<String, Number> metrics = connectionPoolMetrics.getMetrics();
+            double count = 0;
+            double total = 0;
+            for (Map.Entry<String, Number> metric : metrics.entrySet()) {
+                if (metric.getKey().endsWith(".usage_millis.count")) {
+                    String prefix = metric.getKey().substring(0, metric.getKey().length() - ".count".length());
+                    count += metric.getValue().doubleValue();
+                    total += metric.getValue().doubleValue() * metrics.get(prefix + ".mean").doubleValue();
+                }
+            }
+            return new double[]{count, total};
+        }
+
+        private long[] createOrders() {
+            Coffee coffee = TestFixtures.createCoffee("HLD");
+            em.persist(coffee);
+
+            Member member = TestFixtures.createMember("hold-time@gmail.com", "USER", "ADMIN");
+            em.persist(member);
+
+            long orderId = 0;
+            for (int i = 0; i < 20; i++) {
+                Order order = new Order();
+                order.setMember(member);
+                OrderCoffee orderCoffee = new OrderCoffee();
+                orderCoffee.setQuantity(1);
+                orderCoffee.setCoffee(coffee);
+                order.addOrderCoffee(orderCoffee);
+                em.persist(order);
+                orderId = order.getOrderId();
+            }
+            return new long[]{member.getMemberId(), orderId};
+        }
+
+        private String createAccessToken() {
+            Map<String, Object> claims = new HashMap<>();
+            claims.put("username", "hold-time@gmail.com");
+            claims.put("roles", List.of("USER", "ADMIN"));
+
+            return "Bearer " + jwtTokenizer.generateAccessToken(claims, "hold-time@gmail.com",
+                    jwtTokenizer.getTokenExpiration(jwtTokenizer.getAccessTokenExpirationMinutes()),
+                    jwtTokenizer.encodeBase64SecretKey(jwtTokenizer.getSecretKey()));
+        }
+    }
+}
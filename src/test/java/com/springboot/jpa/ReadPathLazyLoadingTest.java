@@ -0,0 +1,142 @@
+package com.springboot.jpa;
+
+import com.springboot.auth.jwt.JwtTokenizer;
+import com.springboot.coffee.entity.Coffee;
+import com.springboot.fixture.TestFixtures;
+import com.springboot.member.entity.Member;
+import com.springboot.order.entity.Order;
+import com.springboot.order.entity.OrderCoffee;
+import org.hibernate.LazyInitializationException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+ open-in-view 가 꺼진 상태에서 컨트롤러의 조회 경로가 응답을 만드는 동안 지연 로딩하지 않는지 확인합니다.
+ 테스트 트랜잭션 없이 요청하므로 서비스의 트랜잭션이 끝난 뒤의 지연 로딩은 실패합니다.
+ 다른 테스트와 데이터가 섞이지 않도록 별도의 인메모리 DB 를 사용합니다.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:read-path",
+        "jpa.lazy-loading.fail-outside-transaction=true"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReadPathLazyLoadingTest {
+    private static final String EMAIL = "read-path@gmail.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JwtTokenizer jwtTokenizer;
+
+    @Autowired
+    private LazyLoadingGuard lazyLoadingGuard;
+
+    private long memberId;
+    private long orderId;
+
+    @BeforeAll
+    void setUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> createOrders());
+    }
+
+    @Test
+    void readPathsDoNotLoadLazilyAfterTransaction() throws Exception {
+        String[] urls = {
+                "/v11/members/" + memberId,
+                "/v11/members?page=1&size=10",
+                "/v11/members?ids=" + memberId,
+                "/v11/members/" + memberId + "/orders?size=10",
+                "/v11/orders/" + orderId,
+                "/v11/orders?page=1&size=10",
+                "/v11/coffees?page=1&size=10"
+        };
+        long outsideTransactionCount = lazyLoadingGuard.getOutsideTransactionCount();
+
+        for (String url : urls) {
+            mockMvc.perform(get(url).header("Authorization", createAccessToken()))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/v11/members/" + memberId).header("Authorization", createAccessToken()))
+                .andExpect(jsonPath("$.data.stamp").value(3));
+        mockMvc.perform(patch("/v11/members/" + memberId)
+                        .header("Authorization", createAccessToken())
+                        .contentType("application/json")
+                        .content("{\"name\": \"회원\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.stamp").value(3));
+
+        assertThat(lazyLoadingGuard.getOutsideTransactionCount()).isEqualTo(outsideTransactionCount);
+    }
+
+    @Test
+    void lazyLoadingWithoutTransactionFails() {
+        TransactionTemplate supports = new TransactionTemplate(transactionManager);
+        supports.setPropagationBehavior(TransactionDefinition.PROPAGATION_SUPPORTS);
+        long outsideTransactionCount = lazyLoadingGuard.getOutsideTransactionCount();
+
+        // 트랜잭션 없이 영속성 컨텍스트만 열려 있는 구간에서 지연 컬렉션을 초기화한다.
+        assertThatThrownBy(() -> supports.executeWithoutResult(status ->
+                em.find(Order.class, orderId).getOrderCoffees().size()))
+                .isInstanceOf(LazyInitializationException.class);
+        assertThat(lazyLoadingGuard.getOutsideTransactionCount()).isEqualTo(outsideTransactionCount + 1);
+    }
+
+    private void createOrders() {
+        Coffee coffee = TestFixtures.createCoffee("RPA");
+        em.persist(coffee);
+
+        Member member = TestFixtures.createMember(EMAIL, "USER", "ADMIN");
+        member.getStamp().setStampCount(3);
+        em.persist(member);
+
+        for (int i = 0; i < 3; i++) {
+            Order order = new Order();
+            order.setMember(member);
+            OrderCoffee orderCoffee = new OrderCoffee();
+            orderCoffee.setQuantity(1);
+            orderCoffee.setCoffee(coffee);
+            order.addOrderCoffee(orderCoffee);
+            em.persist(order);
+            orderId = order.getOrderId();
+        }
+        memberId = member.getMemberId();
+    }
+
+    private String createAccessToken() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("username", EMAIL);
+        claims.put("roles", List.of("USER", "ADMIN"));
+
+        return "Bearer " + jwtTokenizer.generateAccessToken(claims, EMAIL,
+                jwtTokenizer.getTokenExpiration(jwtTokenizer.getAccessTokenExpirationMinutes()),
+                jwtTokenizer.encodeBase64SecretKey(jwtTokenizer.getSecretKey()));
+    }
+}
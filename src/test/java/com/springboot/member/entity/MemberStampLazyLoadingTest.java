@@ -0,0 +1,66 @@
+package com.springboot.member.entity;
+
+import com.springboot.fixture.TestFixtures;
+import com.springboot.member.repository.MemberRepository;
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.PersistentAttributeInterceptable;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Member.stamp 가 바이트코드 향상으로 실제로 지연 로딩되는지 확인합니다.
+@SpringBootTest
+@Transactional
+class MemberStampLazyLoadingTest {
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    private long memberId;
+
+    @BeforeEach
+    void setUp() {
+        Member member = TestFixtures.createMember("lazy-stamp@gmail.com");
+        member.getStamp().setStampCount(3);
+        em.persist(member);
+        em.flush();
+        em.clear();
+        em.getEntityManagerFactory().getCache().evictAll();
+
+        memberId = member.getMemberId();
+    }
+
+    @Test
+    void memberIsEnhanced() {
+        Member member = em.find(Member.class, memberId);
+
+        assertThat(member).isInstanceOf(PersistentAttributeInterceptable.class);
+        assertThat(member).isInstanceOf(SelfDirtinessTracker.class);
+    }
+
+    @Test
+    void stampIsNotLoadedWithMember() {
+        Member member = em.find(Member.class, memberId);
+
+        assertThat(Hibernate.isPropertyInitialized(member, "stamp")).isFalse();
+        assertThat(member.getStamp().getStampCount()).isEqualTo(3);
+        assertThat(Hibernate.isPropertyInitialized(member, "stamp")).isTrue();
+    }
+
+    @Test
+    void stampIsLoadedWithEntityGraph() {
+        Member member = memberRepository.findWithStampByMemberId(memberId).orElseThrow();
+
+        assertThat(Hibernate.isPropertyInitialized(member, "stamp")).isTrue();
+        assertThat(Hibernate.isInitialized(member.getStamp())).isTrue();
+        assertThat(member.getStamp().getStampCount()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,111 @@
+package com.springboot.member.service;
+
+import com.springboot.auth.jwt.TokenRevocations;
+import com.springboot.fixture.TestFixtures;
+import com.springboot.job.entity.JobCheckpoint;
+import com.springboot.job.repository.JobCheckpointRepository;
+import com.springboot.member.entity.Member;
+import com.springboot.member.repository.MemberRepository;
+import com.springboot.order.entity.Order;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"member.dormancy.chunk-size=1", "member.dormancy.throttle-millis=0"})
+@Transactional
+class MemberDormancySweeperTest {
+    @Autowired
+    private MemberDormancySweeper memberDormancySweeper;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private JobCheckpointRepository jobCheckpointRepository;
+
+    @Autowired
+    private TokenRevocations tokenRevocations;
+
+    @Autowired
+    private EntityManager em;
+
+    private Member inactiveMember;
+    private Member orderedMember;
+    private Member newMember;
+
+    @BeforeEach
+    void setUp() {
+        inactiveMember = saveMember("dormant1@gmail.com");
+        orderedMember = saveMember("dormant2@gmail.com");
+        newMember = saveMember("dormant3@gmail.com");
+
+        Order order = new Order();
+        order.setMember(orderedMember);
+        em.persist(order);
+        em.flush();
+
+        // 신규 회원을 제외한 회원을 2년 전에 가입한 회원으로 만든다.
+        em.createNativeQuery("UPDATE member SET created_at = :createdAt WHERE member_id IN (:memberIds)")
+                .setParameter("createdAt", LocalDateTime.now().minusYears(2))
+                .setParameter("memberIds", List.of(inactiveMember.getMemberId(), orderedMember.getMemberId()))
+                .executeUpdate();
+        em.clear();
+    }
+
+    @Test
+    void sleepInactiveMembersTest() {
+        Date issuedAt = new Date(System.currentTimeMillis() - 1000);
+
+        int slept = memberDormancySweeper.sleepInactiveMembers(LocalDateTime.now().minusYears(1));
+
+        assertThat(slept).isEqualTo(1);
+        assertThat(findStatus(inactiveMember)).isEqualTo(Member.MemberStatus.MEMBER_SLEEP);
+        assertThat(findStatus(orderedMember)).isEqualTo(Member.MemberStatus.MEMBER_ACTIVE);
+        assertThat(findStatus(newMember)).isEqualTo(Member.MemberStatus.MEMBER_ACTIVE);
+
+        // 휴면 회원이 이전에 발급받은 토큰만 무효화된다.
+        assertThat(tokenRevocations.isRevoked(inactiveMember.getEmail(), issuedAt)).isTrue();
+        assertThat(tokenRevocations.isRevoked(inactiveMember.getEmail(), new Date(System.currentTimeMillis() + 1000)))
+                .isFalse();
+        assertThat(tokenRevocations.isRevoked(orderedMember.getEmail(), issuedAt)).isFalse();
+
+        // 끝까지 처리하면 다음 실행은 처음부터 시작한다.
+        assertThat(jobCheckpointRepository.findById(MemberDormancySweeper.JOB_NAME))
+                .get().extracting(JobCheckpoint::getLastPosition).isEqualTo(0L);
+    }
+
+    @Test
+    void resumeFromCheckpointTest() {
+        // 이전 실행이 휴면 대상 회원까지 처리하고 중단된 상태
+        JobCheckpoint checkpoint = new JobCheckpoint(MemberDormancySweeper.JOB_NAME);
+        checkpoint.setLastPosition(inactiveMember.getMemberId());
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        jobCheckpointRepository.save(checkpoint);
+
+        int slept = memberDormancySweeper.sleepInactiveMembers(LocalDateTime.now().minusYears(1));
+
+        assertThat(slept).isZero();
+        assertThat(findStatus(inactiveMember)).isEqualTo(Member.MemberStatus.MEMBER_ACTIVE);
+        assertThat(jobCheckpointRepository.findById(MemberDormancySweeper.JOB_NAME))
+                .get().extracting(JobCheckpoint::getLastPosition).isEqualTo(0L);
+    }
+
+    private Member saveMember(String email) {
+        Member member = TestFixtures.createMember(email);
+        em.persist(member);
+        return member;
+    }
+
+    private Member.MemberStatus findStatus(Member member) {
+        return memberRepository.findById(member.getMemberId()).orElseThrow().getMemberStatus();
+    }
+}
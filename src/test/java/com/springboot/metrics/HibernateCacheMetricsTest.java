@@ -0,0 +1,95 @@
+package com.springboot.metrics;
+
+import com.springboot.coffee.entity.Coffee;
+import com.springboot.coffee.repository.CoffeeRepository;
+import com.springboot.fixture.TestFixtures;
+import com.springboot.member.entity.Member;
+import com.springboot.member.repository.MemberRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 2차 캐시는 커밋된 데이터만 담으므로 트랜잭션을 나누어 저장하고 조회한다.
+@SpringBootTest
+class HibernateCacheMetricsTest {
+    @Autowired
+    private CoffeeRepository coffeeRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private HibernateCacheMetrics hibernateCacheMetrics;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Statistics statistics;
+    private Coffee coffee;
+    private Member member;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        coffee = coffeeRepository.save(TestFixtures.createCoffee("CCH"));
+        member = memberRepository.save(TestFixtures.createMember("cache@gmail.com"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            coffeeRepository.deleteById(coffee.getCoffeeId());
+            memberRepository.deleteById(member.getMemberId());
+        });
+    }
+
+    @Test
+    void entityCacheTest() {
+        transactionTemplate.execute(status -> coffeeRepository.findById(coffee.getCoffeeId()));
+        long statements = statistics.getPrepareStatementCount();
+
+        Coffee findCoffee = transactionTemplate.execute(status ->
+                coffeeRepository.findById(coffee.getCoffeeId()).orElseThrow());
+
+        // 다른 트랜잭션에서 다시 조회해도 DB 에 쿼리하지 않는다.
+        assertThat(findCoffee.getCoffeeCode()).isEqualTo("CCH");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+        assertThat(hibernateCacheMetrics.getMetrics())
+                .containsKey("hibernate.cache.region.com.springboot.coffee.entity.Coffee.hit");
+    }
+
+    @Test
+    void queryCacheTest() {
+        transactionTemplate.execute(status -> memberRepository.findByEmail("cache@gmail.com"));
+        long queryCacheHits = statistics.getQueryCacheHitCount();
+        long statements = statistics.getPrepareStatementCount();
+
+        Member findMember = transactionTemplate.execute(status ->
+                memberRepository.findByEmail("cache@gmail.com").orElseThrow());
+
+        // 쿼리 결과와 회원, 권한 목록을 모두 캐시에서 읽는다.
+        assertThat(findMember.getRoles()).containsExactly("USER");
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(queryCacheHits + 1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+
+        Map<String, Number> metrics = hibernateCacheMetrics.getMetrics();
+        assertThat(metrics.get("hibernate.cache.region.query.member.byEmail.hit").longValue()).isPositive();
+    }
+}
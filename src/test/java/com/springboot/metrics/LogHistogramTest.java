@@ -0,0 +1,39 @@
+package com.springboot.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LogHistogramTest {
+    @Test
+    void percentilesStayWithinBucketError() {
+        LogHistogram histogram = new LogHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value);
+        }
+
+        assertThat(histogram.getCount()).isEqualTo(10_000);
+        assertThat(histogram.getMax()).isEqualTo(10_000);
+        assertThat(histogram.getMean()).isEqualTo(5_000.5);
+        // 버킷의 상한을 반환하므로 실제 값 이상, 12.5% 이내다.
+        assertThat(histogram.getValueAtPercentile(50)).isBetween(5_000L, 5_625L);
+        assertThat(histogram.getValueAtPercentile(99)).isBetween(9_900L, 10_000L);
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(10_000);
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        LogHistogram histogram = new LogHistogram();
+        histogram.record(0);
+        histogram.record(3);
+        histogram.record(3);
+        histogram.record(7);
+
+        assertThat(histogram.getValueAtPercentile(25)).isEqualTo(0);
+        assertThat(histogram.getValueAtPercentile(50)).isEqualTo(3);
+        assertThat(histogram.getCountAtOrBelow(3)).isEqualTo(3);
+        assertThat(histogram.getCountAtOrBelow(6)).isEqualTo(3);
+        assertThat(histogram.getMean()).isCloseTo(3.25, within(0.001));
+    }
+}
@@ -0,0 +1,62 @@
+package com.springboot.metrics;
+
+import com.springboot.auth.jwt.JwtTokenizer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RouteLatencyFilterTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtTokenizer jwtTokenizer;
+
+    @Test
+    void latencyIsRecordedByRoutePattern() throws Exception {
+        mockMvc.perform(get("/v11/coffees/999999"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/v11/admin/metrics/prometheus"))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(get("/v11/admin/metrics/prometheus").header("Authorization", createAccessToken("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/plain"))
+                // 경로 변수 값이 아닌 경로 패턴으로 기록된다.
+                .andExpect(content().string(containsString("http_server_requests_seconds_count{" +
+                        "method=\"GET\",route=\"/v11/coffees/{coffee-id}\",status=\"4xx\"}")))
+                .andExpect(content().string(containsString("http_server_requests_seconds_count{" +
+                        "method=\"GET\",route=\"UNMATCHED\",status=\"4xx\"}")))
+                .andExpect(content().string(containsString("# TYPE sql_slow gauge\n")));
+    }
+
+    @Test
+    void prometheusMetricsAreForAdminOnly() throws Exception {
+        mockMvc.perform(get("/v11/admin/metrics/prometheus").header("Authorization", createAccessToken("USER")))
+                .andExpect(status().isForbidden());
+    }
+
+    private String createAccessToken(String role) {
+        String email = "route-latency@gmail.com";
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("username", email);
+        claims.put("roles", List.of(role));
+
+        return "Bearer " + jwtTokenizer.generateAccessToken(claims, email,
+                jwtTokenizer.getTokenExpiration(jwtTokenizer.getAccessTokenExpirationMinutes()),
+                jwtTokenizer.encodeBase64SecretKey(jwtTokenizer.getSecretKey()));
+    }
+}
@@ -0,0 +1,46 @@
+package com.springboot.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteLatencyRecorderTest {
+    @Test
+    void histogramsAreWrittenPerMethodRouteAndStatusClass() {
+        RouteLatencyRecorder recorder = new RouteLatencyRecorder();
+        recorder.record(HttpMethod.GET, "/v11/orders", 200, 500);
+        recorder.record(HttpMethod.GET, "/v11/orders", 200, 2_000);
+        recorder.record(HttpMethod.GET, "/v11/orders", 204, 30_000);
+        recorder.record(HttpMethod.POST, "/v11/orders", 503, 1_200_000);
+        recorder.record(null, RouteLatencyRecorder.UNMATCHED_ROUTE, 401, 100);
+
+        StringBuilder out = new StringBuilder();
+        recorder.writePrometheus(out);
+        String text = out.toString();
+
+        String getOrders = "method=\"GET\",route=\"/v11/orders\",status=\"2xx\"";
+        assertThat(text).contains("# TYPE http_server_requests_seconds histogram\n");
+        // 버킷은 누적 개수이다.
+        assertThat(text).contains("http_server_requests_seconds_bucket{" + getOrders + ",le=\"0.001\"} 1\n");
+        assertThat(text).contains("http_server_requests_seconds_bucket{" + getOrders + ",le=\"0.0025\"} 2\n");
+        assertThat(text).contains("http_server_requests_seconds_bucket{" + getOrders + ",le=\"0.05\"} 3\n");
+        assertThat(text).contains("http_server_requests_seconds_bucket{" + getOrders + ",le=\"+Inf\"} 3\n");
+        assertThat(text).contains("http_server_requests_seconds_sum{" + getOrders + "} 0.0325\n");
+        assertThat(text).contains("http_server_requests_seconds_count{" + getOrders + "} 3\n");
+
+        assertThat(text).contains("http_server_requests_seconds_bucket{" +
+                "method=\"POST\",route=\"/v11/orders\",status=\"5xx\",le=\"1\"} 0\n");
+        assertThat(text).contains("http_server_requests_seconds_bucket{" +
+                "method=\"POST\",route=\"/v11/orders\",status=\"5xx\",le=\"2.5\"} 1\n");
+        assertThat(text).contains("http_server_requests_seconds_count{" +
+                "method=\"OTHER\",route=\"UNMATCHED\",status=\"4xx\"} 1\n");
+    }
+
+    @Test
+    void metricNamesAreSanitized() {
+        assertThat(PrometheusFormat.sanitizeMetricName("datasource.pool.HikariPool-1.usage_millis.p99"))
+                .isEqualTo("datasource_pool_HikariPool_1_usage_millis_p99");
+        assertThat(PrometheusFormat.escapeLabelValue("a\"b\\c")).isEqualTo("a\\\"b\\\\c");
+    }
+}
@@ -0,0 +1,96 @@
+package com.springboot.order.entity;
+
+import com.springboot.coffee.entity.Coffee;
+import com.springboot.fixture.TestFixtures;
+import com.springboot.member.entity.Member;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class OrderCoffeeTest {
+    @Autowired
+    private EntityManager em;
+
+    @Test
+    void addingOrderDoesNotLoadOrderHistory() {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        // 주문 이력이 늘어나도 새 주문을 추가하는 비용은 같아야 한다.
+        long[] statementCounts = new long[2];
+        int[] historySizes = {0, 200};
+        for (int i = 0; i < historySizes.length; i++) {
+            long[] ids = createHistory("H" + i, historySizes[i]);
+            em.flush();
+            em.clear();
+            statistics.clear();
+
+            Coffee coffee = em.find(Coffee.class, ids[0]);
+            Member member = em.find(Member.class, ids[1]);
+            Order order = createOrder(member, coffee);
+            em.flush();
+
+            assertThat(Hibernate.isInitialized(coffee.getOrderCoffees())).isFalse();
+            assertThat(Hibernate.isInitialized(member.getOrders())).isFalse();
+            assertThat(order.getOrderCoffees()).hasSize(1);
+            assertThat(statistics.getCollectionStatistics(Coffee.class.getName() + ".orderCoffees")
+                    .getLoadCount()).isZero();
+            assertThat(statistics.getCollectionStatistics(Member.class.getName() + ".orders")
+                    .getLoadCount()).isZero();
+            statementCounts[i] = statistics.getPrepareStatementCount();
+        }
+
+        assertThat(statementCounts[1]).isEqualTo(statementCounts[0]);
+    }
+
+    @Test
+    void addingOrderKeepsLoadedCollectionsInSync() {
+        Coffee coffee = new Coffee();
+        Member member = new Member("loaded@gmail.com");
+
+        Order order = createOrder(member, coffee);
+        OrderCoffee orderCoffee = order.getOrderCoffees().get(0);
+        coffee.addOrderCoffee(orderCoffee);
+        member.setOrder(order);
+
+        assertThat(coffee.getOrderCoffees()).containsExactly(orderCoffee);
+        assertThat(member.getOrders()).containsExactly(order);
+    }
+
+    private long[] createHistory(String coffeeCode, int orderCount) {
+        Coffee coffee = TestFixtures.createCoffee(coffeeCode);
+        em.persist(coffee);
+
+        Member member = TestFixtures.createMember("history-" + coffeeCode + "@gmail.com");
+        em.persist(member);
+
+        for (int i = 0; i < orderCount; i++) {
+            em.persist(createOrder(member, coffee));
+        }
+        return new long[]{coffee.getCoffeeId(), member.getMemberId()};
+    }
+
+    private Order createOrder(Member member, Coffee coffee) {
+        Order order = new Order();
+        member.setOrder(order);
+
+        OrderCoffee orderCoffee = new OrderCoffee();
+        orderCoffee.setQuantity(1);
+        orderCoffee.addCoffee(coffee);
+        order.addOrderCoffee(orderCoffee);
+
+        if (member.getMemberId() != null) {
+            em.persist(order);
+        }
+        return order;
+    }
+}
@@ -0,0 +1,136 @@
+package com.springboot.order.service;
+
+import com.springboot.coffee.entity.Coffee;
+import com.springboot.exception.BusinessLogicException;
+import com.springboot.exception.ExceptionCode;
+import com.springboot.fixture.TestFixtures;
+import com.springboot.member.entity.Member;
+import com.springboot.order.dto.OrderCursor;
+import com.springboot.order.dto.OrderResponseDto;
+import com.springboot.order.entity.Order;
+import com.springboot.order.entity.OrderCoffee;
+import com.springboot.order.repository.OrderRepository;
+import com.springboot.report.service.SalesReportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = "order.archive.chunk-size=1")
+@Transactional
+class OrderArchiverTest {
+    @Autowired
+    private OrderArchiver orderArchiver;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private SalesReportService salesReportService;
+
+    @Autowired
+    private EntityManager em;
+
+    private Member member;
+    private Coffee coffee;
+    private Order completedOrder;
+    private Order cancelledOrder;
+    private Order requestedOrder;
+    private Order recentCompletedOrder;
+
+    @BeforeEach
+    void setUp() {
+        coffee = TestFixtures.createCoffee("ARC");
+        em.persist(coffee);
+
+        member = TestFixtures.createMember("archive@gmail.com");
+        em.persist(member);
+
+        completedOrder = createOrder(Order.OrderStatus.ORDER_COMPLETE);
+        cancelledOrder = createOrder(Order.OrderStatus.ORDER_CANCEL);
+        requestedOrder = createOrder(Order.OrderStatus.ORDER_REQUEST);
+        recentCompletedOrder = createOrder(Order.OrderStatus.ORDER_COMPLETE);
+        em.flush();
+
+        // 최근 주문을 제외한 주문을 100일 전에 생성된 주문으로 만든다.
+        em.createNativeQuery("UPDATE orders SET created_at = :createdAt WHERE order_id IN (:orderIds)")
+                .setParameter("createdAt", LocalDateTime.now().minusDays(100))
+                .setParameter("orderIds", List.of(completedOrder.getOrderId(), cancelledOrder.getOrderId(),
+                        requestedOrder.getOrderId()))
+                .executeUpdate();
+        em.clear();
+    }
+
+    @Test
+    void oldTerminalOrdersAreMovedAndStillReadable() {
+        int archived = orderArchiver.archiveOrders(LocalDateTime.now().minusDays(90));
+
+        // 오래된 완료/취소 주문만 한 건씩 옮겨진다.
+        assertThat(archived).isEqualTo(2);
+        assertThat(orderRepository.existsById(completedOrder.getOrderId())).isFalse();
+        assertThat(orderRepository.existsById(cancelledOrder.getOrderId())).isFalse();
+        assertThat(orderRepository.existsById(requestedOrder.getOrderId())).isTrue();
+        assertThat(orderRepository.existsById(recentCompletedOrder.getOrderId())).isTrue();
+
+        // 보관된 주문도 주문 커피와 함께 조회된다.
+        OrderResponseDto orderResponse = orderService.findOrderResponse(completedOrder.getOrderId());
+        assertThat(orderResponse.getOrderStatus()).isEqualTo(Order.OrderStatus.ORDER_COMPLETE);
+        assertThat(orderResponse.getOrderCoffees()).hasSize(1);
+
+        // 회원 주문 이력은 두 테이블의 주문을 최신순으로 이어서 조회한다.
+        List<Long> orderIds = new ArrayList<>();
+        String cursor = null;
+        Slice<OrderResponseDto> page;
+        do {
+            page = orderService.findMemberOrderResponses(member.getMemberId(), null, cursor, 2);
+            page.forEach(order -> {
+                orderIds.add(order.getOrderId());
+                assertThat(order.getOrderCoffees()).hasSize(1);
+            });
+            cursor = page.hasNext() ?
+                    OrderCursor.of(page.getContent().get(page.getNumberOfElements() - 1)).encode() : null;
+        } while (cursor != null);
+        assertThat(orderIds).containsExactly(recentCompletedOrder.getOrderId(), requestedOrder.getOrderId(),
+                cancelledOrder.getOrderId(), completedOrder.getOrderId());
+
+        // 보관된 주문은 변경할 수 없다.
+        assertThatThrownBy(() -> orderService.cancelOrder(cancelledOrder.getOrderId()))
+                .isInstanceOf(BusinessLogicException.class)
+                .extracting("exceptionCode").isEqualTo(ExceptionCode.CANNOT_CHANGE_ORDER);
+
+        // 매출 집계를 다시 만들 때 보관된 완료 주문도 포함된다.
+        LocalDate archivedDate = LocalDate.now().minusDays(100);
+        salesReportService.rebuildDailySales(archivedDate, archivedDate);
+        assertThat(salesReportService.findDailySales(archivedDate, archivedDate))
+                .filteredOn(sales -> sales.getCoffeeId() == coffee.getCoffeeId())
+                .extracting("quantity", "orderCount")
+                .containsExactly(tuple(1L, 1L));
+    }
+
+    private Order createOrder(Order.OrderStatus orderStatus) {
+        Order order = new Order();
+        order.setMember(member);
+        order.setOrderStatus(orderStatus);
+        OrderCoffee orderCoffee = new OrderCoffee();
+        orderCoffee.setQuantity(1);
+        orderCoffee.setCoffee(coffee);
+        order.addOrderCoffee(orderCoffee);
+        em.persist(order);
+        return order;
+    }
+}
@@ -0,0 +1,99 @@
+package com.springboot.order.service;
+
+import com.springboot.coffee.entity.Coffee;
+import com.springboot.fixture.TestFixtures;
+import com.springboot.member.entity.Member;
+import com.springboot.order.entity.Order;
+import com.springboot.order.entity.OrderCoffee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class OrderExportServiceTest {
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private EntityManager em;
+
+    private long orderId;
+
+    @BeforeEach
+    void setUp() {
+        Member member = TestFixtures.createMember("export@gmail.com");
+        em.persist(member);
+
+        Order order = new Order();
+        order.setMember(member);
+        addOrderCoffee(order, saveCoffee("아메리카노", "Americano", "EXA"), 2);
+        addOrderCoffee(order, saveCoffee("라떼", "Latte, \"Iced\"", "EXB"), 1);
+        em.persist(order);
+        em.flush();
+        em.clear();
+
+        orderId = order.getOrderId();
+    }
+
+    @Test
+    void exportOrdersAsNdjson() throws Exception {
+        List<String> lines = export(OrderExportService.ExportFormat.NDJSON).lines()
+                .filter(line -> line.contains("\"orderId\":" + orderId + ","))
+                .collect(Collectors.toList());
+
+        assertThat(lines).hasSize(1);
+        assertThat(lines.get(0))
+                .contains("\"korName\":\"아메리카노\"", "\"quantity\":2", "\"korName\":\"라떼\"");
+    }
+
+    @Test
+    void exportOrdersAsCsv() throws Exception {
+        String csv = export(OrderExportService.ExportFormat.CSV);
+
+        assertThat(csv).startsWith("orderId,memberId,orderStatus,createdAt,coffeeId,");
+        assertThat(csv.lines().filter(line -> line.startsWith(orderId + ",")))
+                .hasSize(2)
+                .anySatisfy(line -> assertThat(line).endsWith(",라떼,\"Latte, \"\"Iced\"\"\",1,4000"));
+    }
+
+    @Test
+    void exportOrdersOutsideRangeIsEmpty() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        orderExportService.exportOrders(LocalDateTime.of(2000, 1, 1, 0, 0), LocalDateTime.of(2000, 1, 2, 0, 0),
+                OrderExportService.ExportFormat.NDJSON, outputStream);
+
+        assertThat(outputStream.size()).isZero();
+    }
+
+    private String export(OrderExportService.ExportFormat format) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        orderExportService.exportOrders(LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1),
+                format, outputStream);
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+
+    private Coffee saveCoffee(String korName, String engName, String coffeeCode) {
+        Coffee coffee = TestFixtures.createCoffee(korName, engName, 4000, coffeeCode);
+        em.persist(coffee);
+        return coffee;
+    }
+
+    private void addOrderCoffee(Order order, Coffee coffee, int quantity) {
+        OrderCoffee orderCoffee = new OrderCoffee();
+        orderCoffee.setQuantity(quantity);
+        orderCoffee.addCoffee(coffee);
+        order.addOrderCoffee(orderCoffee);
+    }
+}
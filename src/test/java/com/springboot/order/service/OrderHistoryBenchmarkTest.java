@@ -0,0 +1,113 @@
+package com.springboot.order.service;
+
+import com.springboot.order.dto.OrderCursor;
+import com.springboot.order.entity.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/*
+ 회원 주문 이력 조회가 이력의 길이, 읽는 위치와 상관없이 일정한 시간 안에 끝나는지 확인하는 벤치마크입니다.
+ 다른 테스트와 데이터가 섞이지 않도록 별도의 인메모리 DB 를 사용합니다.
+ ./gradlew test -Dbenchmark=true 로 실행하며, -Dbenchmark.orders 로 주문 수(기본 100만 건)를 바꿀 수 있습니다.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:order-history-benchmark",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.springframework.orm.jpa=INFO"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class OrderHistoryBenchmarkTest {
+    private static final int MEMBER_COUNT = 10_000;
+    private static final int BATCH_SIZE = 10_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int ITERATIONS = 200;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+
+    @Test
+    void benchmarkMemberOrderHistory() {
+        int orderCount = Integer.getInteger("benchmark.orders", 1_000_000);
+        // 주문의 10% 는 한 회원(heavy member)의 이력이 되도록 만든다.
+        int heavyOrderCount = orderCount / 10;
+
+        long loadStartedAt = System.nanoTime();
+        long heavyMemberId = insertMembers();
+        insertOrders(orderCount, heavyOrderCount, heavyMemberId);
+        long loadMillis = (System.nanoTime() - loadStartedAt) / 1_000_000;
+        System.out.printf("member order history benchmark: orders=%d, heavy member orders=%d, load=%dms%n",
+                orderCount, heavyOrderCount, loadMillis);
+
+        for (int depth : new int[]{0, heavyOrderCount / 2, heavyOrderCount - PAGE_SIZE}) {
+            String cursor = depth == 0 ? null : cursorAt(heavyMemberId, depth);
+            long allStatusMicros = measure(() ->
+                    orderService.findMemberOrderResponses(heavyMemberId, null, cursor, PAGE_SIZE));
+            long canceledMicros = measure(() -> orderService.findMemberOrderResponses(
+                    heavyMemberId, Order.OrderStatus.ORDER_CANCEL, cursor, PAGE_SIZE));
+
+            System.out.printf("  depth=%d: page=%dus, page with status filter=%dus%n",
+                    depth, allStatusMicros, canceledMicros);
+        }
+    }
+
+    private long measure(Runnable query) {
+        for (int i = 0; i < ITERATIONS; i++) {
+            query.run();
+        }
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            query.run();
+        }
+        return (System.nanoTime() - startedAt) / 1_000 / ITERATIONS;
+    }
+
+    private String cursorAt(long memberId, int depth) {
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT order_id, created_at FROM orders WHERE member_id = ? " +
+                        "ORDER BY created_at DESC, order_id DESC LIMIT 1 OFFSET ?",
+                memberId, depth - 1);
+        return new OrderCursor(((Timestamp) row.get("CREATED_AT")).toLocalDateTime(),
+                ((Number) row.get("ORDER_ID")).longValue()).encode();
+    }
+
+    private long insertMembers() {
+        List<Object[]> members = new ArrayList<>();
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            members.add(new Object[]{"benchmark" + i + "@gmail.com", String.format("010-%04d-%04d", i / 10_000, i % 10_000)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO member (email, password, name, phone, member_status) " +
+                "VALUES (?, 'password', 'benchmark', ?, 'MEMBER_ACTIVE')", members);
+        return jdbcTemplate.queryForObject("SELECT MIN(member_id) FROM member", Long.class);
+    }
+
+    private void insertOrders(int orderCount, int heavyOrderCount, long firstMemberId) {
+        LocalDateTime startedAt = LocalDateTime.now().minusYears(1);
+        String[] statuses = {"ORDER_REQUEST", "ORDER_CONFIRM", "ORDER_COMPLETE", "ORDER_CANCEL"};
+
+        List<Object[]> orders = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < orderCount; i++) {
+            long memberId = i % 10 == 0 && i / 10 < heavyOrderCount ?
+                    firstMemberId : firstMemberId + 1 + i % (MEMBER_COUNT - 1);
+            orders.add(new Object[]{memberId, statuses[i % statuses.length],
+                    Timestamp.valueOf(startedAt.plusSeconds(i))});
+            if (orders.size() == BATCH_SIZE || i == orderCount - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO orders (member_id, order_status, created_at) " +
+                        "VALUES (?, ?, ?)", orders);
+                orders.clear();
+            }
+        }
+    }
+}
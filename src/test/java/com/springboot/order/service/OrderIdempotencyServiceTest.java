@@ -0,0 +1,131 @@
+package com.springboot.order.service;
+
+import com.springboot.coffee.entity.Coffee;
+import com.springboot.coffee.repository.CoffeeRepository;
+import com.springboot.fixture.TestFixtures;
+import com.springboot.member.entity.Member;
+import com.springboot.member.repository.MemberRepository;
+import com.springboot.order.entity.Order;
+import com.springboot.order.entity.OrderCoffee;
+import com.springboot.order.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class OrderIdempotencyServiceTest {
+    private static final int THREAD_COUNT = 8;
+
+    @Autowired
+    private OrderIdempotencyService orderIdempotencyService;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private CoffeeRepository coffeeRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Member member;
+    private Coffee coffee;
+
+    // 동시 요청은 각자 트랜잭션을 커밋하므로 테스트 트랜잭션으로 되돌릴 수 없다. 저장한 행은 테스트가 끝나면 지운다.
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        member = memberRepository.save(TestFixtures.createMember("idempotency@gmail.com"));
+        coffee = coffeeRepository.save(TestFixtures.createCoffee("IDK"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> orderIds = em.createQuery(
+                            "SELECT o.orderId FROM ORDERS o WHERE o.member.memberId = :memberId", Long.class)
+                    .setParameter("memberId", member.getMemberId())
+                    .getResultList();
+            em.createQuery("DELETE FROM OrderIdempotencyKey k WHERE k.memberId = :memberId")
+                    .setParameter("memberId", member.getMemberId())
+                    .executeUpdate();
+            if (!orderIds.isEmpty()) {
+                orderRepository.deleteOrderCoffeesByOrderIdIn(orderIds);
+                orderRepository.deleteOrdersByOrderIdIn(orderIds);
+            }
+            memberRepository.deleteById(member.getMemberId());
+            coffeeRepository.deleteById(coffee.getCoffeeId());
+        });
+    }
+
+    @Test
+    void concurrentRetriesCreateOneOrder() throws Exception {
+        int stampCount = stampCount();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+
+        List<Future<Long>> results = new ArrayList<>();
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return orderIdempotencyService.createOrder(createOrder(), "retry-key");
+            }));
+        }
+        start.countDown();
+
+        List<Long> orderIds = new ArrayList<>();
+        for (Future<Long> result : results) {
+            orderIds.add(result.get());
+        }
+        executor.shutdown();
+
+        // 동시에 들어온 요청과 나중에 다시 보낸 요청 모두 같은 주문을 받고, 스탬프는 한 번만 적립된다.
+        assertThat(orderIds).containsOnly(orderIds.get(0));
+        assertThat(orderIdempotencyService.createOrder(createOrder(), "retry-key")).isEqualTo(orderIds.get(0));
+        assertThat(stampCount()).isEqualTo(stampCount + 2);
+
+        assertThat(orderIdempotencyService.createOrder(createOrder(), "another-key"))
+                .isNotEqualTo(orderIds.get(0));
+    }
+
+    private int stampCount() {
+        return memberRepository.findAllWithStampByMemberIdIn(List.of(member.getMemberId()))
+                .get(0).getStamp().getStampCount();
+    }
+
+    private Order createOrder() {
+        Member orderMember = new Member();
+        orderMember.setMemberId(member.getMemberId());
+        Coffee orderedCoffee = new Coffee();
+        orderedCoffee.setCoffeeId(coffee.getCoffeeId());
+
+        Order order = new Order();
+        order.setMember(orderMember);
+        OrderCoffee orderCoffee = new OrderCoffee();
+        orderCoffee.setQuantity(2);
+        orderCoffee.addCoffee(orderedCoffee);
+        order.addOrderCoffee(orderCoffee);
+        return order;
+    }
+}
@@ -0,0 +1,144 @@
+package com.springboot.order.service;
+
+import com.springboot.coffee.entity.Coffee;
+import com.springboot.coffee.repository.CoffeeRepository;
+import com.springboot.fixture.TestFixtures;
+import com.springboot.member.entity.Member;
+import com.springboot.member.repository.MemberRepository;
+import com.springboot.order.entity.Order;
+import com.springboot.order.entity.OrderCoffee;
+import com.springboot.order.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "order.ingestion.enabled=true",
+        "order.ingestion.max-batch-size=10",
+        "order.ingestion.max-wait-millis=50"
+})
+class OrderIngestionPipelineTest {
+    private static final int ORDER_COUNT = 40;
+
+    @Autowired
+    private OrderIngestionPipeline orderIngestionPipeline;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private CoffeeRepository coffeeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager em;
+
+    private TransactionTemplate transactionTemplate;
+    private Member member;
+    private Coffee coffee;
+
+    // 파이프라인은 별도 스레드에서 커밋하므로 테스트 트랜잭션으로 되돌릴 수 없다. 저장한 행은 테스트가 끝나면 지운다.
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        member = memberRepository.save(TestFixtures.createMember("ingestion@gmail.com"));
+        coffee = coffeeRepository.save(TestFixtures.createCoffee("ING"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> orderIds = em.createQuery(
+                            "SELECT o.orderId FROM ORDERS o WHERE o.member.memberId = :memberId", Long.class)
+                    .setParameter("memberId", member.getMemberId())
+                    .getResultList();
+            if (!orderIds.isEmpty()) {
+                orderRepository.deleteOrderCoffeesByOrderIdIn(orderIds);
+                orderRepository.deleteOrdersByOrderIdIn(orderIds);
+            }
+            memberRepository.deleteById(member.getMemberId());
+            coffeeRepository.deleteById(coffee.getCoffeeId());
+        });
+    }
+
+    @Test
+    void concurrentOrdersAreWrittenInBatches() throws Exception {
+        int stampCount = stampCount();
+        long batchCount = metric("order.ingestion.batch_size.count");
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        List<Future<CompletableFuture<Long>>> submits = new ArrayList<>();
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            submits.add(executor.submit(() -> {
+                start.await();
+                return orderIngestionPipeline.submit(createOrder());
+            }));
+        }
+        start.countDown();
+
+        List<Long> orderIds = new ArrayList<>();
+        for (Future<CompletableFuture<Long>> submit : submits) {
+            orderIds.add(submit.get().get(10, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        // 모든 주문이 저장되고, 같은 회원의 스탬프가 배치 안에서 빠짐없이 누적된다.
+        assertThat(new HashSet<>(orderIds)).hasSize(ORDER_COUNT);
+        assertThat(orderRepository.findAllById(orderIds)).hasSize(ORDER_COUNT);
+        assertThat(stampCount()).isEqualTo(stampCount + ORDER_COUNT * 2);
+
+        // 주문 수보다 적은 트랜잭션으로 저장된다.
+        assertThat(metric("order.ingestion.batch_size.count") - batchCount).isLessThan(ORDER_COUNT);
+        assertThat(metric("order.ingestion.batch_size.max")).isLessThanOrEqualTo(10);
+        assertThat(metric("order.ingestion.latency_micros.count")).isGreaterThanOrEqualTo(ORDER_COUNT);
+    }
+
+    private long metric(String name) {
+        Map<String, Number> metrics = orderIngestionPipeline.getMetrics();
+        return metrics.get(name).longValue();
+    }
+
+    private int stampCount() {
+        return memberRepository.findAllWithStampByMemberIdIn(List.of(member.getMemberId()))
+                .get(0).getStamp().getStampCount();
+    }
+
+    private Order createOrder() {
+        Member orderMember = new Member();
+        orderMember.setMemberId(member.getMemberId());
+        Coffee orderedCoffee = new Coffee();
+        orderedCoffee.setCoffeeId(coffee.getCoffeeId());
+
+        Order order = new Order();
+        order.setMember(orderMember);
+        OrderCoffee orderCoffee = new OrderCoffee();
+        orderCoffee.setQuantity(2);
+        orderCoffee.addCoffee(orderedCoffee);
+        order.addOrderCoffee(orderCoffee);
+        return order;
+    }
+}
@@ -0,0 +1,105 @@
+package com.springboot.order.service;
+
+import com.springboot.exception.BusinessLogicException;
+import com.springboot.exception.ExceptionCode;
+import com.springboot.order.entity.Order;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 저장 스레드가 응답이 끝난 주문과 스레드 종료를 어떻게 처리하는지 DB 없이 확인합니다.
+class OrderIngestionWriterTest {
+    private final CountDownLatch writing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<Order> savedOrders = Collections.synchronizedList(new ArrayList<>());
+    private OrderIngestionPipeline pipeline;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        release.countDown();
+        pipeline.stop();
+    }
+
+    @Test
+    void expiredOrdersAreNotWritten() throws Exception {
+        pipeline = startPipeline(false);
+        Order first = new Order();
+        CompletableFuture<Long> firstResult = pipeline.submit(first);
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // 첫 배치를 저장하는 동안 기다리던 주문의 응답 제한 시간이 지난다.
+        CompletableFuture<Long> expiredResult = pipeline.submit(new Order());
+        expiredResult.completeExceptionally(new BusinessLogicException(ExceptionCode.ORDER_QUEUE_FULL));
+        Order next = new Order();
+        CompletableFuture<Long> nextResult = pipeline.submit(next);
+        release.countDown();
+
+        assertThat(firstResult.get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(nextResult.get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(savedOrders).containsExactly(first, next);
+        assertThat(pipeline.getMetrics().get("order.ingestion.expired")).isEqualTo(1L);
+    }
+
+    @Test
+    void pendingOrdersFailWhenWriterStops() throws Exception {
+        pipeline = startPipeline(true);
+        CompletableFuture<Long> writingResult = pipeline.submit(new Order());
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Long> queuedResult = pipeline.submit(new Order());
+        release.countDown();
+
+        // 저장 중이던 주문과 큐에 남은 주문 모두 응답을 받는다.
+        assertOrderQueueFull(writingResult);
+        assertOrderQueueFull(queuedResult);
+        assertThatThrownBy(() -> pipeline.submit(new Order()))
+                .extracting("exceptionCode").isEqualTo(ExceptionCode.ORDER_QUEUE_FULL);
+    }
+
+    // 첫 배치를 저장할 때 release 가 열릴 때까지 기다린다. fail 이면 그 뒤에 Error 로 저장 스레드를 끝낸다.
+    private OrderIngestionPipeline startPipeline(boolean fail) {
+        AtomicLong orderIds = new AtomicLong();
+        OrderService orderService = new OrderService(null, null, null, null, null, null, null, null) {
+            @Override
+            public void verifyOrder(Order order) {
+            }
+
+            @Override
+            public List<Order> createVerifiedOrders(List<Order> orders) {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (fail) {
+                    throw new AssertionError("writer stopped");
+                }
+                orders.forEach(order -> order.setOrderId(orderIds.incrementAndGet()));
+                savedOrders.addAll(orders);
+                return orders;
+            }
+        };
+        OrderIngestionPipeline orderIngestionPipeline =
+                new OrderIngestionPipeline(orderService, true, 10, 0, 10, 3000);
+        orderIngestionPipeline.start();
+        return orderIngestionPipeline;
+    }
+
+    private void assertOrderQueueFull(CompletableFuture<Long> result) {
+        assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .extracting(Throwable::getCause)
+                .extracting("exceptionCode").isEqualTo(ExceptionCode.ORDER_QUEUE_FULL);
+    }
+}
@@ -0,0 +1,183 @@
+package com.springboot.order.service;
+
+import com.springboot.coffee.entity.Coffee;
+import com.springboot.exception.BusinessLogicException;
+import com.springboot.exception.ExceptionCode;
+import com.springboot.fixture.TestFixtures;
+import com.springboot.member.entity.Member;
+import com.springboot.order.dto.OrderCursor;
+import com.springboot.order.dto.OrderResponseDto;
+import com.springboot.order.entity.Order;
+import com.springboot.order.entity.OrderCoffee;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class OrderServiceTest {
+    private static final int ORDER_COUNT = 30;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private EntityManager em;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        List<Coffee> coffees = List.of(
+                saveCoffee("아메리카노", "Americano", 3000, "OQA"),
+                saveCoffee("카페라떼", "Cafe Latte", 4000, "OQB"));
+
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            Member member = TestFixtures.createMember("order-query-" + i + "@gmail.com");
+            em.persist(member);
+
+            Order order = new Order();
+            order.setMember(member);
+            for (Coffee coffee : coffees) {
+                OrderCoffee orderCoffee = new OrderCoffee();
+                orderCoffee.setQuantity(1);
+                orderCoffee.setCoffee(coffee);
+                order.addOrderCoffee(orderCoffee);
+            }
+            em.persist(order);
+        }
+        em.flush();
+        em.clear();
+
+        statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findOrderResponsesRunsFixedNumberOfQueries() {
+        for (int size : new int[]{5, 25}) {
+            statistics.clear();
+
+            Page<OrderResponseDto> orders = orderService.findOrderResponses(0, size);
+
+            // 주문 페이지, 전체 개수, 주문 커피 조회
+            assertThat(orders.getContent()).hasSize(size);
+            assertThat(orders.getContent())
+                    .allSatisfy(order -> assertThat(order.getOrderCoffees()).hasSize(2));
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+            assertThat(statistics.getEntityLoadCount()).isZero();
+        }
+    }
+
+    @Test
+    void findOrderResponseRunsTwoQueries() {
+        long orderId = orderService.findOrderResponses(0, 1).getContent().get(0).getOrderId();
+        statistics.clear();
+
+        OrderResponseDto order = orderService.findOrderResponse(orderId);
+
+        assertThat(order.getOrderCoffees())
+                .extracting("korName")
+                .containsExactly("아메리카노", "카페라떼");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void findMemberOrderResponsesPagesWithCursor() {
+        Member member = TestFixtures.createMember("order-history@gmail.com");
+        em.persist(member);
+
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Order order = new Order();
+            order.setMember(member);
+            order.setOrderStatus(i % 2 == 0 ? Order.OrderStatus.ORDER_REQUEST : Order.OrderStatus.ORDER_CANCEL);
+            em.persist(order);
+            orderIds.add(0, order.getOrderId());
+        }
+        em.flush();
+        em.clear();
+
+        // 최신순으로 2건씩 끝까지 읽으면 모든 주문을 한 번씩 읽는다.
+        List<Long> readOrderIds = new ArrayList<>();
+        String cursor = null;
+        do {
+            Slice<OrderResponseDto> orders =
+                    orderService.findMemberOrderResponses(member.getMemberId(), null, cursor, 2);
+            orders.forEach(order -> readOrderIds.add(order.getOrderId()));
+            cursor = orders.hasNext() ?
+                    OrderCursor.of(orders.getContent().get(orders.getContent().size() - 1)).encode() : null;
+        } while (cursor != null);
+        assertThat(readOrderIds).isEqualTo(orderIds);
+
+        Slice<OrderResponseDto> canceledOrders = orderService.findMemberOrderResponses(
+                member.getMemberId(), Order.OrderStatus.ORDER_CANCEL, null, 10);
+        assertThat(canceledOrders.getContent())
+                .extracting(OrderResponseDto::getOrderStatus)
+                .containsOnly(Order.OrderStatus.ORDER_CANCEL)
+                .hasSize(2);
+
+        assertThatThrownBy(() -> orderService.findMemberOrderResponses(Long.MAX_VALUE, null, null, 10))
+                .isInstanceOf(BusinessLogicException.class);
+        assertThatThrownBy(() -> orderService.findMemberOrderResponses(member.getMemberId(), null, "invalid", 10))
+                .isInstanceOf(BusinessLogicException.class);
+    }
+
+    @Test
+    void changeOrderStatusWithSingleGuardedUpdate() {
+        long orderId = orderService.findOrderResponses(0, 1).getContent().get(0).getOrderId();
+        statistics.clear();
+
+        orderService.cancelOrder(orderId);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(orderService.findOrderResponse(orderId).getOrderStatus())
+                .isEqualTo(Order.OrderStatus.ORDER_CANCEL);
+
+        // 취소된 주문은 다시 취소하거나 다른 상태로 변경할 수 없다.
+        assertThatThrownBy(() -> orderService.cancelOrder(orderId))
+                .extracting("exceptionCode").isEqualTo(ExceptionCode.CANNOT_CHANGE_ORDER);
+        Order confirm = new Order();
+        confirm.setOrderId(orderId);
+        confirm.setOrderStatus(Order.OrderStatus.ORDER_CONFIRM);
+        assertThatThrownBy(() -> orderService.updateOrder(confirm))
+                .extracting("exceptionCode").isEqualTo(ExceptionCode.CANNOT_CHANGE_ORDER);
+        assertThatThrownBy(() -> orderService.cancelOrder(Long.MAX_VALUE))
+                .extracting("exceptionCode").isEqualTo(ExceptionCode.ORDER_NOT_FOUND);
+    }
+
+    @Test
+    void updateOrdersChangesAllOrdersInStatus() {
+        int updatedCount = orderService.updateOrders(Order.OrderStatus.ORDER_REQUEST,
+                Order.OrderStatus.ORDER_CONFIRM, null);
+
+        assertThat(updatedCount).isGreaterThanOrEqualTo(ORDER_COUNT);
+        assertThat(orderService.findOrderResponses(0, ORDER_COUNT).getContent())
+                .extracting(OrderResponseDto::getOrderStatus)
+                .containsOnly(Order.OrderStatus.ORDER_CONFIRM);
+
+        // 확정된 주문은 취소할 수 없다.
+        assertThatThrownBy(() -> orderService.updateOrders(Order.OrderStatus.ORDER_CONFIRM,
+                Order.OrderStatus.ORDER_CANCEL, null))
+                .extracting("exceptionCode").isEqualTo(ExceptionCode.CANNOT_CHANGE_ORDER);
+    }
+
+    private Coffee saveCoffee(String korName, String engName, int price, String coffeeCode) {
+        Coffee coffee = TestFixtures.createCoffee(korName, engName, price, coffeeCode);
+        em.persist(coffee);
+        return coffee;
+    }
+}
@@ -0,0 +1,120 @@
+package com.springboot.report.service;
+
+import com.springboot.coffee.entity.Coffee;
+import com.springboot.fixture.TestFixtures;
+import com.springboot.member.entity.Member;
+import com.springboot.order.entity.Order;
+import com.springboot.order.entity.OrderCoffee;
+import com.springboot.order.service.OrderService;
+import com.springboot.report.dto.DailyCoffeeSalesResponseDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@Transactional
+class SalesReportServiceTest {
+    @Autowired
+    private SalesReportService salesReportService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private EntityManager em;
+
+    private Coffee americano;
+    private Coffee latte;
+    private final List<Order> orders = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        americano = saveCoffee("아메리카노", "Americano", 3000, "SRA");
+        latte = saveCoffee("카페라떼", "Cafe Latte", 4000, "SRB");
+
+        Member member = TestFixtures.createMember("sales-report@gmail.com");
+        em.persist(member);
+
+        for (int i = 0; i < 4; i++) {
+            Order order = new Order();
+            order.setMember(member);
+            addOrderCoffee(order, americano, 2);
+            addOrderCoffee(order, latte, 1);
+            em.persist(order);
+            orders.add(order);
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void completedOrdersAreAggregatedIncrementally() {
+        // 한 건은 단건 변경으로, 두 건은 일괄 변경으로 완료하고 한 건은 취소한다.
+        completeOrder(orders.get(0));
+        confirmOrder(orders.get(1));
+        confirmOrder(orders.get(2));
+        orderService.updateOrders(Order.OrderStatus.ORDER_CONFIRM, Order.OrderStatus.ORDER_COMPLETE, null);
+        orderService.cancelOrder(orders.get(3).getOrderId());
+
+        LocalDate today = LocalDate.now();
+        assertThat(findSales(today))
+                .extracting("coffeeId", "quantity", "revenue", "orderCount")
+                .containsExactly(
+                        tuple(americano.getCoffeeId(), 6L, 18000L, 3L),
+                        tuple(latte.getCoffeeId(), 3L, 12000L, 3L));
+
+        // 주문으로 다시 만든 집계도 같다.
+        salesReportService.rebuildDailySales(today, today);
+        assertThat(findSales(today))
+                .extracting("coffeeId", "quantity", "revenue", "orderCount")
+                .containsExactly(
+                        tuple(americano.getCoffeeId(), 6L, 18000L, 3L),
+                        tuple(latte.getCoffeeId(), 3L, 12000L, 3L));
+    }
+
+    private List<DailyCoffeeSalesResponseDto> findSales(LocalDate salesDate) {
+        return salesReportService.findDailySales(salesDate, salesDate).stream()
+                .filter(sales -> sales.getCoffeeId() == americano.getCoffeeId()
+                        || sales.getCoffeeId() == latte.getCoffeeId())
+                .collect(Collectors.toList());
+    }
+
+    private void completeOrder(Order order) {
+        changeOrderStatus(order, Order.OrderStatus.ORDER_COMPLETE);
+    }
+
+    private void confirmOrder(Order order) {
+        changeOrderStatus(order, Order.OrderStatus.ORDER_CONFIRM);
+    }
+
+    private void changeOrderStatus(Order order, Order.OrderStatus orderStatus) {
+        Order patch = new Order();
+        patch.setOrderId(order.getOrderId());
+        patch.setOrderStatus(orderStatus);
+        orderService.updateOrder(patch);
+    }
+
+    private void addOrderCoffee(Order order, Coffee coffee, int quantity) {
+        OrderCoffee orderCoffee = new OrderCoffee();
+        orderCoffee.setQuantity(quantity);
+        orderCoffee.setCoffee(coffee);
+        order.addOrderCoffee(orderCoffee);
+    }
+
+    private Coffee saveCoffee(String korName, String engName, int price, String coffeeCode) {
+        Coffee coffee = TestFixtures.createCoffee(korName, engName, price, coffeeCode);
+        em.persist(coffee);
+        return coffee;
+    }
+}